@@ -0,0 +1,327 @@
+package com.sree.jmeter.lrconverter;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts assertions under a sampler into LoadRunner checks, choosing the cheapest
+ * LR equivalent:
+ *  - ResponseAssertion on text/headers -> web_reg_find (Text=) for literal patterns,
+ *    web_reg_save_param_regexp only when the pattern really is a regex. The search is
+ *    limited to headers or the main body, like JMeter's field and scope.
+ *  - ResponseAssertion on the response code -> HTTP_INFO_RETURN_CODE comparison.
+ *  - DurationAssertion -> SLA threshold of the sampler's own transaction (sla.cfg), or an
+ *    inline HTTP_INFO_DOWNLOAD_TIME check when the sampler has no transaction of its own.
+ *
+ * Registrations are written before the request; checks that need C code (OR, NOT on a
+ * regex, response codes) run after it and fail the open transactions.
+ */
+final class AssertionConverter {
+
+    // Assertion.test_type bits
+    private static final int MATCH = 1;
+    private static final int CONTAINS = 2;
+    private static final int NOT = 4;
+    private static final int EQUALS = 8;
+    private static final int SUBSTRING = 16;
+    private static final int OR = 32;
+
+    private AssertionConverter() {
+    }
+
+    /** Code to write before and after the request. */
+    static final class Checks {
+        final StringBuilder before = new StringBuilder();
+        final StringBuilder after = new StringBuilder();
+    }
+
+    static boolean isAssertion(String tag) {
+        return "ResponseAssertion".equals(tag) || "DurationAssertion".equals(tag);
+    }
+
+    /**
+     * @param transaction name of the sampler's own transaction, or null if it runs inside
+     *                    an enclosing one
+     * @param concurrent  true inside web_concurrent_start/end, where no C code can run
+     *                    between the request and its checks
+     */
+    static Checks convert(Element sampler, String transaction, boolean concurrent, ThreadGroupContext ctx) {
+        Checks checks = new Checks();
+        Element samplerTree = ConverterCore.findFollowingHashTree(sampler);
+        if (samplerTree == null) {
+            return checks;
+        }
+
+        String samplerName = sampler.getAttribute("testname");
+        List<String> extracted = new ArrayList<>();
+        for (Node n = samplerTree.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n.getNodeType() == Node.ELEMENT_NODE && CorrelationConverter.isExtractor(n.getNodeName())) {
+                extracted.addAll(CorrelationConverter.refNames((Element) n));
+            }
+        }
+        int[] counter = {0};
+        Node node = samplerTree.getFirstChild();
+        while (node != null) {
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                Element el = (Element) node;
+                if ("ResponseAssertion".equals(el.getTagName())) {
+                    addResponse(el, samplerName, extracted, concurrent, counter, checks, ctx);
+                } else if ("DurationAssertion".equals(el.getTagName())) {
+                    addDuration(el, samplerName, transaction, concurrent, checks, ctx);
+                }
+            }
+            node = node.getNextSibling();
+        }
+        return checks;
+    }
+
+    // ==== Response assertion ====
+
+    private static void addResponse(Element el, String samplerName, List<String> extracted, boolean concurrent,
+                                    int[] counter, Checks checks, ThreadGroupContext ctx) {
+        String name = el.getAttribute("testname");
+        List<String> patterns = testStrings(el);
+        if (patterns.isEmpty()) {
+            return;
+        }
+        int type = intProp(el, "Assertion.test_type", SUBSTRING);
+        boolean not = (type & NOT) != 0;
+        boolean or = (type & OR) != 0;
+        String field = prop(el, "Assertion.test_field");
+        String label = "Response Assertion '" + name + "' on '" + samplerName + "'";
+
+        if ("true".equalsIgnoreCase(prop(el, "Assertion.assume_success"))) {
+            // "Ignore status": HTTP errors must not fail the step, only this assertion decides
+            checks.before.append("    web_set_rts_key(\"key=HttpErrorsAsWarnings\", \"Value=1\", LAST);\n");
+            checks.after.append("    web_set_rts_key(\"key=HttpErrorsAsWarnings\", \"Value=0\", LAST);\n");
+        }
+
+        List<String> terms = new ArrayList<>();
+        List<String> mapped = new ArrayList<>();
+        if ("Assertion.response_code".equals(field)) {
+            for (String pattern : patterns) {
+                String condition = codeCondition(pattern.trim());
+                if (condition == null) {
+                    ConverterCore.log(ctx, "WARNING: " + label + ": response code pattern '" + pattern
+                            + "' has no simple LR equivalent; check skipped.");
+                    continue;
+                }
+                terms.add(not ? "!(" + condition + ")" : condition);
+                mapped.add(condition);
+            }
+            if (!terms.isEmpty()) {
+                checks.after.append("    rc = web_get_int_property(HTTP_INFO_RETURN_CODE);\n");
+            }
+        } else {
+            String search = toLrSearch(el, field, label, ctx);
+            if (search == null) {
+                checks.before.append("    // TODO: ").append(ConverterCore.escapeForC(label.replace("\n", " ")))
+                        .append(" checks ").append(field).append("\n");
+                return;
+            }
+            if ((type & (EQUALS | MATCH)) != 0) {
+                mapped.add("(whole-field match checked as 'contains')");
+            }
+            for (String pattern : patterns) {
+                for (String param : extracted) {
+                    if (pattern.contains("${" + param + "}") || pattern.contains("${" + param + "_")) {
+                        // JMeter asserts after extracting; LR evaluates Text= when registering
+                        ConverterCore.log(ctx, "WARNING: " + label + " checks ${" + param + "}, extracted from the "
+                                + "same response; LR uses the previous value, please review.");
+                    }
+                }
+                String literal = (type & (SUBSTRING | EQUALS)) != 0 ? pattern : RegexBoundaryAnalyzer.literal(pattern);
+                boolean needsCount = or || (not && literal == null);
+                String param = "assert_" + (++counter[0]);
+                if (literal != null) {
+                    ctx.responseScans += ctx.scanWeight;
+                    checks.before.append("    web_reg_find(");
+                    firstArg(checks.before, "Text=" + literal);
+                    arg(checks.before, "Search=" + search);
+                    if (needsCount) {
+                        arg(checks.before, "SaveCount=" + param);
+                        terms.add(found("{" + param + "}", not));
+                    } else if (not) {
+                        arg(checks.before, "Fail=Found");
+                    }
+                    checks.before.append("\n        LAST);\n");
+                    mapped.add("web_reg_find Text (" + search + ")" + (not && !needsCount ? " Fail=Found" : ""));
+                } else {
+                    ctx.responseScans += ctx.scanWeight;
+                    checks.before.append("    web_reg_save_param_regexp(\n");
+                    line(checks.before, "ParamName=" + param);
+                    line(checks.before, "RegExp=" + pattern);
+                    if (needsCount) {
+                        line(checks.before, "Ordinal=ALL");
+                        line(checks.before, "NotFound=warning");
+                        terms.add(found("{" + param + "_count}", not));
+                    } else {
+                        line(checks.before, "Ordinal=1");
+                    }
+                    checks.before.append("        SEARCH_FILTERS,\n");
+                    line(checks.before, "Scope=" + ("Headers".equals(search) ? "Headers" : "Body"));
+                    if ("Noresource".equals(search)) {
+                        line(checks.before, "IgnoreRedirections=Yes");
+                    }
+                    checks.before.append("        LAST);\n");
+                    mapped.add("web_reg_save_param_regexp (" + search + ")");
+                }
+            }
+            checks.before.append("\n");
+        }
+
+        if (!terms.isEmpty()) {
+            if (concurrent) {
+                ConverterCore.log(ctx, "WARNING: " + label + " needs a check after the request, which cannot run "
+                        + "inside a concurrent group; check skipped.");
+            } else {
+                String message = prop(el, "Assertion.custom_message");
+                if (message.isEmpty()) message = label + " failed";
+                writeFailure(checks.after, "!(" + String.join(or ? " || " : " && ", terms) + ")", message, "", "");
+            }
+        }
+        ctx.assertions.add(label + ": " + describe(type, field) + " -> " + String.join(", ", mapped)
+                + (terms.isEmpty() ? "" : (or ? " (any of)" : "") + " + check after the request"));
+    }
+
+    /** C condition on rc for a response code pattern: 200, 2\d\d, 2.., 20[0-9] ... */
+    private static String codeCondition(String pattern) {
+        String p = pattern.replace("\\d", ".").replace("[0-9]", ".");
+        if (!p.matches("[1-5][0-9.]{2}") || p.matches("..*\\.[0-9].*")) {
+            return null;
+        }
+        int wildcards = p.length() - p.replace(".", "").length();
+        if (wildcards == 0) return "rc == " + p;
+        int divisor = wildcards == 1 ? 10 : 100;
+        return "rc / " + divisor + " == " + p.substring(0, p.length() - wildcards);
+    }
+
+    /** Field to check -> web_reg_find Search, null if LR cannot search it. */
+    private static String toLrSearch(Element el, String field, String label, ThreadGroupContext ctx) {
+        if (field.isEmpty() || "Assertion.response_data".equals(field)) {
+            return isMainSampleOnly(el) ? "Noresource" : "Body";
+        }
+        if ("Assertion.response_headers".equals(field) || "Assertion.response_message".equals(field)) {
+            return "Headers";
+        }
+        if ("Assertion.response_data_as_document".equals(field)) {
+            ConverterCore.log(ctx, "WARNING: " + label + " checks the document text; LR searches the raw body.");
+            return "Body";
+        }
+        ConverterCore.log(ctx, "WARNING: " + label + " checks " + field + ", which LR cannot search; left as TODO.");
+        return null;
+    }
+
+    private static boolean isMainSampleOnly(Element el) {
+        String scope = prop(el, "Assertion.scope");
+        return scope.isEmpty() || "parent".equals(scope);
+    }
+
+    private static String found(String param, boolean not) {
+        return "atoi(lr_eval_string(\"" + param + "\")) " + (not ? "== 0" : "> 0");
+    }
+
+    private static String describe(int type, String field) {
+        String match = (type & MATCH) != 0 ? "matches" : (type & EQUALS) != 0 ? "equals"
+                : (type & CONTAINS) != 0 ? "contains" : "substring";
+        String target = field.isEmpty() ? "response_data" : field.replace("Assertion.", "");
+        return target + ((type & NOT) != 0 ? " not " : " ") + match;
+    }
+
+    // ==== Duration assertion ====
+
+    private static void addDuration(Element el, String samplerName, String transaction, boolean concurrent,
+                                    Checks checks, ThreadGroupContext ctx) {
+        String name = el.getAttribute("testname");
+        String label = "Duration Assertion '" + name + "' on '" + samplerName + "'";
+        long millis;
+        try {
+            millis = Long.parseLong(prop(el, "DurationAssertion.duration"));
+        } catch (NumberFormatException ex) {
+            ConverterCore.log(ctx, "WARNING: " + label + " has no numeric duration ("
+                    + prop(el, "DurationAssertion.duration") + "); not converted.");
+            return;
+        }
+
+        if (transaction != null) {
+            Long current = ctx.slaThresholds.get(transaction);
+            if (current == null || millis < current) {
+                ctx.slaThresholds.put(transaction, millis);
+            }
+            ctx.assertions.add(label + ": " + millis + " ms -> SLA for transaction '" + transaction + "' (sla.cfg)");
+        } else if (concurrent) {
+            ConverterCore.log(ctx, "WARNING: " + label + " is inside a concurrent group without its own "
+                    + "transaction; not converted.");
+        } else {
+            checks.after.append("    rc = web_get_int_property(HTTP_INFO_DOWNLOAD_TIME);\n");
+            writeFailure(checks.after, "rc > " + millis, label + " failed", ": %d ms > " + millis + " ms", ", rc");
+            ctx.assertions.add(label + ": " + millis + " ms -> inline download time check (no own transaction)");
+        }
+    }
+
+    // ==== helpers ====
+
+    /** Fails the open transactions; details is an lr_error_message format suffix for args. */
+    private static void writeFailure(StringBuilder sb, String failCondition, String message,
+                                     String details, String args) {
+        String text = ConverterCore.escapeForC(message.replace("\n", " ")).replace("%", "%%");
+        sb.append("    if (").append(failCondition).append(") {\n");
+        sb.append("        lr_error_message(\"").append(text).append(details).append("\"").append(args).append(");\n");
+        sb.append("        lr_set_transaction_status(LR_FAIL);\n");
+        sb.append("    }\n");
+    }
+
+    private static List<String> testStrings(Element el) {
+        List<String> result = new ArrayList<>();
+        Node child = el.getFirstChild();
+        while (child != null) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                String name = ((Element) child).getAttribute("name");
+                // JMeter has always saved this property with the typo
+                if ("Asserion.test_strings".equals(name) || "Assertion.test_strings".equals(name)) {
+                    Node item = child.getFirstChild();
+                    while (item != null) {
+                        if (item.getNodeType() == Node.ELEMENT_NODE && !item.getTextContent().isEmpty()) {
+                            result.add(item.getTextContent());
+                        }
+                        item = item.getNextSibling();
+                    }
+                }
+            }
+            child = child.getNextSibling();
+        }
+        return result;
+    }
+
+    private static void firstArg(StringBuilder sb, String value) {
+        sb.append("\"").append(cString(value)).append("\",");
+    }
+
+    private static void arg(StringBuilder sb, String value) {
+        sb.append("\n        \"").append(cString(value)).append("\",");
+    }
+
+    private static void line(StringBuilder sb, String value) {
+        sb.append("        \"").append(cString(value)).append("\",\n");
+    }
+
+    private static String cString(String value) {
+        return ConverterCore.escapeForC(ConverterCore.convertJmeterVarsToLoadRunner(value));
+    }
+
+    private static int intProp(Element el, String name, int fallback) {
+        try {
+            return Integer.parseInt(prop(el, name));
+        } catch (NumberFormatException ex) {
+            return fallback;
+        }
+    }
+
+    private static String prop(Element el, String name) {
+        String v = ConverterCore.getProp(el, name);
+        return v == null ? "" : v.trim();
+    }
+}
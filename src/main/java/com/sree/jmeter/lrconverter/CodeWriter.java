@@ -0,0 +1,67 @@
+package com.sree.jmeter.lrconverter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer for generated C code that indents every line by the current block depth.
+ *
+ * Code generators keep writing lines with their usual fixed indentation ("    web_url(...")
+ * and nested controller blocks (for/while/if) only call indent()/outdent().
+ */
+class CodeWriter extends Writer {
+
+    private static final String INDENT = "    ";
+
+    private final Writer out;
+    private int level;
+    private boolean lineStart = true;
+
+    CodeWriter(Writer out) {
+        this.out = out;
+    }
+
+    void indent() {
+        level++;
+    }
+
+    void outdent() {
+        if (level > 0) level--;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        write(new String(cbuf, off, len));
+    }
+
+    @Override
+    public void write(String str) throws IOException {
+        if (level == 0) {
+            out.write(str);
+            if (!str.isEmpty()) lineStart = str.charAt(str.length() - 1) == '\n';
+            return;
+        }
+
+        int start = 0;
+        while (start < str.length()) {
+            int nl = str.indexOf('\n', start);
+            int end = nl < 0 ? str.length() : nl + 1;
+            if (lineStart && nl != start) {
+                for (int i = 0; i < level; i++) out.write(INDENT);
+            }
+            out.write(str, start, end - start);
+            lineStart = nl >= 0;
+            start = end;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
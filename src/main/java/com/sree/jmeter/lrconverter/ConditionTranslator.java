@@ -0,0 +1,175 @@
+package com.sree.jmeter.lrconverter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Translates JMeter If/While controller conditions into C expressions using lr_eval_string.
+ *
+ * Supported:
+ *  - ${var}                                  (value mode: "true" / not "false")
+ *  - ${__jexl3(...)}, ${__groovy(...)}, ${__javaScript(...)} wrapping simple comparisons
+ *  - "${a}" == "x", "${a}" != 'x', ${n} > 3, vars.get("a") == "x", joined by && or ||
+ * Anything else returns null and the caller emits a TODO.
+ */
+final class ConditionTranslator {
+
+    private static final Pattern FUNCTION = Pattern.compile(
+            "^\\$\\{__(?:jexl2|jexl3|groovy|javaScript)\\((.*?)(?:,[^,()]*)?\\)}$", Pattern.DOTALL);
+    private static final Pattern SINGLE_VAR = Pattern.compile("^\\$\\{([A-Za-z0-9_.-]+)}$");
+    private static final Pattern COMPARISON = Pattern.compile("^(.+?)\\s*(===|!==|==|!=|>=|<=|>|<)\\s*(.+)$");
+    private static final Pattern VARS_GET = Pattern.compile("^vars\\.get\\(\\s*[\"']([^\"']+)[\"']\\s*\\)$");
+    private static final Pattern NUMBER = Pattern.compile("^-?\\d+$");
+
+    private ConditionTranslator() {
+    }
+
+    /**
+     * @param condition     raw JMeter condition
+     * @param script        true if JMeter evaluates the condition as a script (IfController without
+     *                      "Interpret condition as variable expression")
+     * @param whileSemantics true for WhileController: loop while the value is not "false"
+     * @return C expression, or null if it cannot be translated
+     */
+    static String translate(String condition, boolean script, boolean whileSemantics) {
+        if (condition == null) return null;
+        String c = condition.trim();
+
+        if ("true".equalsIgnoreCase(c)) return "1";
+        if ("false".equalsIgnoreCase(c)) return "0";
+
+        Matcher fn = FUNCTION.matcher(c);
+        if (fn.matches()) {
+            return translateExpression(fn.group(1));
+        }
+
+        Matcher var = SINGLE_VAR.matcher(c);
+        if (var.matches()) {
+            String value = "lr_eval_string(\"{" + var.group(1) + "}\")";
+            return whileSemantics
+                    ? "strcmp(" + value + ", \"false\") != 0"
+                    : "strcmp(" + value + ", \"true\") == 0";
+        }
+
+        return script ? translateExpression(c) : null;
+    }
+
+    private static String translateExpression(String expr) {
+        List<String> orTerms = splitTopLevel(expr.trim(), "||");
+        List<String> orParts = new ArrayList<>();
+        for (String orTerm : orTerms) {
+            List<String> andParts = new ArrayList<>();
+            for (String andTerm : splitTopLevel(orTerm, "&&")) {
+                String term = stripParens(andTerm.trim());
+                boolean nested = splitTopLevel(term, "||").size() > 1 || splitTopLevel(term, "&&").size() > 1;
+                String t = nested ? translateExpression(term) : translateTerm(term);
+                if (t == null) return null;
+                if (nested) t = "(" + t + ")";
+                andParts.add(t);
+            }
+            String and = String.join(" && ", andParts);
+            orParts.add(andParts.size() == 1 || orTerms.size() == 1 ? and : "(" + and + ")");
+        }
+        return String.join(" || ", orParts);
+    }
+
+    private static String translateTerm(String term) {
+        if ("true".equals(term)) return "1";
+        if ("false".equals(term)) return "0";
+
+        Matcher m = COMPARISON.matcher(term);
+        if (!m.matches()) return null;
+
+        String op = m.group(2);
+        if ("===".equals(op)) op = "==";
+        if ("!==".equals(op)) op = "!=";
+
+        String left = m.group(1).trim();
+        String right = m.group(3).trim();
+        boolean numeric = isNumericOperand(left) || isNumericOperand(right) || (!"==".equals(op) && !"!=".equals(op));
+
+        String l = numeric ? numberOperand(left) : stringOperand(left);
+        String r = numeric ? numberOperand(right) : stringOperand(right);
+        if (l == null || r == null) return null;
+
+        return numeric ? l + " " + op + " " + r : "strcmp(" + l + ", " + r + ") " + op + " 0";
+    }
+
+    private static boolean isNumericOperand(String s) {
+        return NUMBER.matcher(s).matches();
+    }
+
+    private static String stringOperand(String s) {
+        if (s.length() >= 2 && (s.startsWith("\"") && s.endsWith("\"") || s.startsWith("'") && s.endsWith("'"))) {
+            String body = s.substring(1, s.length() - 1);
+            String lr = ConverterCore.escapeForC(ConverterCore.convertJmeterVarsToLoadRunner(body));
+            return body.contains("${") ? "lr_eval_string(\"" + lr + "\")" : "\"" + lr + "\"";
+        }
+        Matcher var = SINGLE_VAR.matcher(s);
+        if (var.matches()) {
+            return "lr_eval_string(\"{" + var.group(1) + "}\")";
+        }
+        Matcher get = VARS_GET.matcher(s);
+        if (get.matches()) {
+            return "lr_eval_string(\"{" + get.group(1) + "}\")";
+        }
+        return null;
+    }
+
+    private static String numberOperand(String s) {
+        if (isNumericOperand(s)) return s;
+        String str = stringOperand(s);
+        return str == null ? null : "atoi(" + str + ")";
+    }
+
+    private static String stripParens(String s) {
+        while (isWrapped(s)) {
+            s = s.substring(1, s.length() - 1).trim();
+        }
+        return s;
+    }
+
+    /** True if s is "( ... )" with the first parenthesis closing at the very end. */
+    private static boolean isWrapped(String s) {
+        if (s.length() < 2 || s.charAt(0) != '(' || s.charAt(s.length() - 1) != ')') return false;
+        int depth = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch == '(') depth++;
+            if (ch == ')') depth--;
+            if (depth == 0 && i < s.length() - 1) return false;
+        }
+        return true;
+    }
+
+    /** Splits on an operator outside of quotes and parentheses. */
+    private static List<String> splitTopLevel(String s, String op) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        char quote = 0;
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (quote != 0) {
+                if (ch == quote) quote = 0;
+            } else if (ch == '"' || ch == '\'') {
+                quote = ch;
+            } else if (ch == '(') {
+                depth++;
+            } else if (ch == ')') {
+                depth--;
+                if (depth < 0) return Collections.singletonList(s);
+            } else if (depth == 0 && s.startsWith(op, i)) {
+                parts.add(s.substring(start, i).trim());
+                start = i + op.length();
+                i = start - 1;
+            }
+        }
+        if (depth != 0) return Collections.singletonList(s);
+        parts.add(s.substring(start).trim());
+        return parts;
+    }
+}
@@ -0,0 +1,203 @@
+package com.sree.jmeter.lrconverter;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Scope index of the config elements that apply to one ThreadGroup, built once per
+ * ThreadGroup:
+ *  - HTTP Request Defaults (ConfigTestElement): effective protocol/domain/port/path for
+ *    each hashTree, inheriting from the enclosing hashTree. Each hashTree is resolved
+ *    once and memoized, so a sampler never rescans its ancestors.
+ *  - User Defined Variables (TestPlan variables and Arguments elements), which JMeter
+ *    evaluates once at start-up regardless of where they sit.
+ *
+ * Include and Module Controllers splice their fragment in at the controller's position,
+ * as JMeter does: between enterFragment() and exitFragment() the fragment's tree inherits
+ * the defaults in scope at the controller, and is memoized per splice because the same
+ * fragment may be pulled in under different defaults.
+ */
+class ConfigScope {
+
+    /** Effective HTTP Request Defaults; null fields are not set in any enclosing scope. */
+    static final class HttpDefaults {
+        static final HttpDefaults NONE = new HttpDefaults(null, null, null, null);
+
+        final String protocol;
+        final String domain;
+        final String port;
+        final String path;
+
+        HttpDefaults(String protocol, String domain, String port, String path) {
+            this.protocol = protocol;
+            this.domain = domain;
+            this.port = port;
+            this.path = path;
+        }
+
+        /** Values set on the config element override the inherited ones, per field. */
+        HttpDefaults with(Element config) {
+            return new HttpDefaults(
+                    override(protocol, config, "HTTPSampler.protocol"),
+                    override(domain, config, "HTTPSampler.domain"),
+                    override(port, config, "HTTPSampler.port"),
+                    override(path, config, "HTTPSampler.path"));
+        }
+
+        private static String override(String inherited, Element config, String name) {
+            String value = ConverterCore.getStringProp(config, name);
+            return value == null || value.trim().isEmpty() ? inherited : value.trim();
+        }
+    }
+
+    /** A fragment tree spliced in at an Include/ModuleController. */
+    private static final class Splice {
+        final Element tree;
+        final HttpDefaults inherited;
+        final Map<Element, HttpDefaults> resolved = new HashMap<>();
+
+        Splice(Element tree, HttpDefaults inherited) {
+            this.tree = tree;
+            this.inherited = inherited;
+        }
+    }
+
+    private final Map<Element, HttpDefaults> resolved = new HashMap<>();
+    private final Deque<Splice> splices = new ArrayDeque<>();
+    private final Map<String, String> variables = new LinkedHashMap<>();
+
+    ConfigScope(Element tg, Element tgTree) {
+        collectVariables(tg, tgTree);
+    }
+
+    /** HTTP Request Defaults in effect for the sampler (its own config children included). */
+    HttpDefaults httpDefaults(Element sampler) {
+        Node parent = sampler.getParentNode();
+        HttpDefaults defaults = isHashTree(parent) ? resolve((Element) parent) : HttpDefaults.NONE;
+        Element own = ConverterCore.findFollowingHashTree(sampler);
+        return own == null ? defaults : withLocalDefaults(defaults, own);
+    }
+
+    /**
+     * Until the matching exitFragment(), elements under tree (the included plan's tree, or
+     * a module target's hashTree) resolve as if tree stood at the controller's position.
+     */
+    void enterFragment(Element controller, Element tree) {
+        Node parent = controller.getParentNode();
+        HttpDefaults inherited = isHashTree(parent) ? resolve((Element) parent) : HttpDefaults.NONE;
+        splices.push(new Splice(tree, inherited));
+    }
+
+    void exitFragment() {
+        splices.pop();
+    }
+
+    /** User Defined Variables in evaluation order (later definitions win). */
+    Map<String, String> userDefinedVariables() {
+        return variables;
+    }
+
+    // ==== HTTP Request Defaults ====
+
+    private HttpDefaults resolve(Element hashTree) {
+        Splice splice = splices.peek();
+        Map<Element, HttpDefaults> memo = splice == null ? resolved : splice.resolved;
+        HttpDefaults defaults = memo.get(hashTree);
+        if (defaults == null) {
+            HttpDefaults inherited;
+            if (splice != null && hashTree == splice.tree) {
+                inherited = splice.inherited;
+            } else {
+                Node parent = hashTree.getParentNode();
+                inherited = isHashTree(parent) ? resolve((Element) parent) : HttpDefaults.NONE;
+            }
+            defaults = withLocalDefaults(inherited, hashTree);
+            memo.put(hashTree, defaults);
+        }
+        return defaults;
+    }
+
+    private static HttpDefaults withLocalDefaults(HttpDefaults inherited, Element hashTree) {
+        HttpDefaults defaults = inherited;
+        for (Node node = hashTree.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node.getNodeType() == Node.ELEMENT_NODE && isHttpDefaults((Element) node)) {
+                defaults = defaults.with((Element) node);
+            }
+        }
+        return defaults;
+    }
+
+    private static boolean isHttpDefaults(Element el) {
+        if (!"ConfigTestElement".equals(el.getTagName()) || "false".equals(el.getAttribute("enabled"))) {
+            return false;
+        }
+        return "HttpDefaultsGui".equals(el.getAttribute("guiclass"))
+                || ConverterCore.getStringProp(el, "HTTPSampler.domain") != null;
+    }
+
+    // ==== User Defined Variables ====
+
+    private void collectVariables(Element tg, Element tgTree) {
+        NodeList plans = tg.getOwnerDocument().getElementsByTagName("TestPlan");
+        if (plans.getLength() > 0) {
+            Element plan = (Element) plans.item(0);
+            for (Node node = plan.getFirstChild(); node != null; node = node.getNextSibling()) {
+                if (node.getNodeType() == Node.ELEMENT_NODE
+                        && "TestPlan.user_defined_variables".equals(((Element) node).getAttribute("name"))) {
+                    addArguments((Element) node);
+                }
+            }
+        }
+
+        // Arguments elements around the ThreadGroup, outermost first
+        Deque<Element> scopes = new ArrayDeque<>();
+        for (Node scope = tg.getParentNode(); isHashTree(scope); scope = scope.getParentNode()) {
+            scopes.push((Element) scope);
+        }
+        for (Element scope : scopes) {
+            for (Node node = scope.getFirstChild(); node != null; node = node.getNextSibling()) {
+                if (node.getNodeType() == Node.ELEMENT_NODE && isArguments((Element) node)) {
+                    addArguments((Element) node);
+                }
+            }
+        }
+
+        // and anywhere inside it
+        if (tgTree != null) {
+            NodeList inside = tgTree.getElementsByTagName("Arguments");
+            for (int i = 0; i < inside.getLength(); i++) {
+                if (isArguments((Element) inside.item(i))) {
+                    addArguments((Element) inside.item(i));
+                }
+            }
+        }
+    }
+
+    private static boolean isArguments(Element el) {
+        return "Arguments".equals(el.getTagName()) && !"false".equals(el.getAttribute("enabled"));
+    }
+
+    private void addArguments(Element arguments) {
+        NodeList entries = arguments.getElementsByTagName("elementProp");
+        for (int i = 0; i < entries.getLength(); i++) {
+            Element entry = (Element) entries.item(i);
+            if (!"Argument".equals(entry.getAttribute("elementType"))) continue;
+            String name = ConverterCore.getStringProp(entry, "Argument.name");
+            if (name == null || name.trim().isEmpty()) continue;
+            String value = ConverterCore.getStringProp(entry, "Argument.value");
+            variables.remove(name.trim());
+            variables.put(name.trim(), value == null ? "" : value);
+        }
+    }
+
+    private static boolean isHashTree(Node node) {
+        return node instanceof Element && "hashTree".equals(((Element) node).getTagName());
+    }
+}
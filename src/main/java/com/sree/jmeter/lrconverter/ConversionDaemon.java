@@ -0,0 +1,302 @@
+package com.sree.jmeter.lrconverter;
+
+import org.w3c.dom.Document;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional long-running local conversion service for CI.
+ *
+ * Keeps one JVM (warm JIT, XML parser classes loaded) and a PlanCache of parsed plans,
+ * so converting many small JMX files does not pay JVM startup each time, and converting
+ * the same plan again skips parsing.
+ *
+ * Listens on the loopback interface only. At startup it writes a random token to a file
+ * only the current user can read (--token-file, default ~/.jmeter-lr-converter/daemon.token)
+ * and deletes it on shutdown; other local users cannot connect without it.
+ *
+ * Line protocol, one request per line, fields separated by TAB. The first line of every
+ * connection must authenticate, otherwise the connection is closed:
+ *   AUTH     token                                     -> OK | ERROR <message>
+ *   CONVERT  jmxPath  outputDir  [option=value ...]   -> OK <millis>ms | ERROR <message>
+ *            (with dryRun=true: OK <millis>ms, then one TAB-separated estimate per ThreadGroup)
+ *   STATS                                              -> OK <cache stats>
+ *   CLEAR                                              -> OK (drops all cached plans)
+ *   PING                                               -> OK
+ *   SHUTDOWN                                           -> OK (server exits)
+ *
+ * Both paths must be absolute: they would otherwise resolve against the daemon's working
+ * directory, not the client's.
+ *
+ * Options: enableHeaders, enableCorrelation, enableThinkTime, pruneUnusedCorrelations,
+ * splitActionsByTransaction, dryRun (true/false), maxSamplersPerAction and foldRepeatedRequests (number).
+ *
+ * Each connection is served on its own worker thread, so a slow conversion does not
+ * hold up other clients. Conversions of the same cached plan run one at a time (the DOM
+ * is not safe for concurrent readers); different plans convert in parallel.
+ *
+ * Usage: java -cp jmeter-lr-converter.jar com.sree.jmeter.lrconverter.ConversionDaemon [--port 47311] [--cache-mb 256]
+ *        [--token-file path]
+ */
+public class ConversionDaemon {
+
+    private static final int DEFAULT_PORT = 47311;
+    private static final int DEFAULT_CACHE_MB = 256;
+    private static final int CLIENT_TIMEOUT_MS = 60_000;
+    private static final int WORKER_THREADS = 4;
+
+    private final int port;
+    private final PlanCache cache;
+    private final File tokenFile;
+    private volatile byte[] token;
+    private volatile boolean running = true;
+    private volatile ServerSocket server;
+
+    public ConversionDaemon(int port, long cacheBytes) {
+        this(port, cacheBytes, defaultTokenFile());
+    }
+
+    public ConversionDaemon(int port, long cacheBytes, File tokenFile) {
+        this.port = port;
+        this.cache = new PlanCache(cacheBytes);
+        this.tokenFile = tokenFile;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = DEFAULT_PORT;
+        int cacheMb = DEFAULT_CACHE_MB;
+        File tokenFile = defaultTokenFile();
+        for (int i = 0; i < args.length - 1; i++) {
+            if ("--port".equals(args[i])) {
+                port = Integer.parseInt(args[++i]);
+            } else if ("--cache-mb".equals(args[i])) {
+                cacheMb = Integer.parseInt(args[++i]);
+            } else if ("--token-file".equals(args[i])) {
+                tokenFile = new File(args[++i]);
+            }
+        }
+        new ConversionDaemon(port, cacheMb * 1024L * 1024L, tokenFile).serve();
+    }
+
+    private static File defaultTokenFile() {
+        return new File(new File(System.getProperty("user.home"), ".jmeter-lr-converter"), "daemon.token");
+    }
+
+    /** Accepts clients until SHUTDOWN, handing each connection to a worker thread. */
+    public void serve() throws Exception {
+        token = writeToken(tokenFile);
+        ExecutorService workers = Executors.newFixedThreadPool(WORKER_THREADS);
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            this.server = server;
+            System.out.println("[JMX->LR] Conversion daemon listening on " + server.getLocalSocketAddress()
+                    + ", token in " + tokenFile.getAbsolutePath());
+            while (running) {
+                Socket client;
+                try {
+                    client = server.accept();
+                } catch (SocketException ex) {
+                    if (!running) break; // closed by SHUTDOWN
+                    throw ex;
+                }
+                workers.execute(() -> serveClient(client));
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(CLIENT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            Files.deleteIfExists(tokenFile.toPath());
+        }
+    }
+
+    /** New random token in a file readable and writable by the current user only. */
+    private static byte[] writeToken(File file) throws IOException {
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        StringBuilder hex = new StringBuilder();
+        for (byte b : random) {
+            hex.append(String.format("%02x", b));
+        }
+
+        Path path = file.getAbsoluteFile().toPath();
+        Files.createDirectories(path.getParent());
+        Files.deleteIfExists(path);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            // Windows: the user profile is private by default; also drop access for others where possible
+            Files.createFile(path);
+            File created = path.toFile();
+            created.setReadable(false, false);
+            created.setWritable(false, false);
+            created.setReadable(true, true);
+            created.setWritable(true, true);
+        }
+        byte[] token = hex.toString().getBytes(StandardCharsets.US_ASCII);
+        Files.write(path, token);
+        return token;
+    }
+
+    private void serveClient(Socket client) {
+        try (Socket socket = client) {
+            socket.setSoTimeout(CLIENT_TIMEOUT_MS);
+            handle(socket);
+        } catch (Exception ex) {
+            // timeout or dropped connection: the other clients are not affected
+            System.out.println("[JMX->LR] Client connection ended: " + ex.getMessage());
+        }
+    }
+
+    private void handle(Socket client) throws Exception {
+        BufferedReader in = new BufferedReader(
+                new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+        Writer out = new BufferedWriter(
+                new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8));
+
+        String first = in.readLine();
+        while (first != null && first.trim().isEmpty()) {
+            first = in.readLine();
+        }
+        if (first == null) {
+            return;
+        }
+        if (!authenticated(first.split("\t"))) {
+            out.write("ERROR Not authenticated: send AUTH<TAB>token (see the token file) first\n");
+            out.flush();
+            return;
+        }
+        out.write("OK\n");
+        out.flush();
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.trim().isEmpty()) continue;
+            out.write(execute(line.split("\t")) + "\n");
+            out.flush();
+            if (!running) break;
+        }
+    }
+
+    private boolean authenticated(String[] request) {
+        if (request.length != 2 || !"AUTH".equalsIgnoreCase(request[0].trim())) {
+            return false;
+        }
+        return MessageDigest.isEqual(token, request[1].trim().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String execute(String[] request) {
+        String command = request[0].trim().toUpperCase();
+        try {
+            switch (command) {
+                case "PING":
+                    return "OK";
+                case "STATS":
+                    return "OK " + cache.stats();
+                case "CLEAR":
+                    cache.clear();
+                    return "OK";
+                case "SHUTDOWN":
+                    running = false;
+                    server.close(); // wakes up the accept loop
+                    return "OK";
+                case "CONVERT":
+                    return convert(request);
+                default:
+                    return "ERROR Unknown command: " + command;
+            }
+        } catch (Exception ex) {
+            System.out.println("[JMX->LR] " + command + " failed: " + ex);
+            return "ERROR " + String.valueOf(ex.getMessage()).replace('\n', ' ');
+        }
+    }
+
+    private String convert(String[] request) throws Exception {
+        if (request.length < 3) {
+            return "ERROR Usage: CONVERT<TAB>jmxPath<TAB>outputDir[<TAB>option=value...]";
+        }
+        File jmxFile = new File(request[1].trim());
+        File outDir = new File(request[2].trim());
+        if (!jmxFile.isAbsolute() || !outDir.isAbsolute()) {
+            return "ERROR Paths must be absolute (they would resolve against the daemon's working directory): "
+                    + (jmxFile.isAbsolute() ? outDir : jmxFile);
+        }
+        if (!jmxFile.isFile()) {
+            return "ERROR JMX file does not exist: " + jmxFile.getAbsolutePath();
+        }
+
+        ConverterOptions options = new ConverterOptions();
+        for (int i = 3; i < request.length; i++) {
+            applyOption(options, request[i].trim());
+        }
+
+        StringBuilder estimates = new StringBuilder();
+        if (options.isDryRun()) {
+            options.setLogListener(line -> {
+                if (line.startsWith("Dry run: ")) estimates.append('\t').append(line.substring(9));
+            });
+        }
+
+        long start = System.nanoTime();
+        Document document = cache.get(jmxFile);
+        synchronized (document) {
+            ConverterCore.convert(document, jmxFile, outDir, options);
+        }
+        return "OK " + (System.nanoTime() - start) / 1_000_000 + "ms" + estimates;
+    }
+
+    private static void applyOption(ConverterOptions options, String option) {
+        int eq = option.indexOf('=');
+        if (eq < 0) {
+            throw new IllegalArgumentException("Option must be name=value: " + option);
+        }
+        String name = option.substring(0, eq).trim();
+        String value = option.substring(eq + 1).trim();
+        boolean flag = Boolean.parseBoolean(value);
+        switch (name) {
+            case "enableHeaders":
+                options.setEnableHeaders(flag);
+                break;
+            case "enableCorrelation":
+                options.setEnableCorrelation(flag);
+                break;
+            case "enableThinkTime":
+                options.setEnableThinkTime(flag);
+                break;
+            case "pruneUnusedCorrelations":
+                options.setPruneUnusedCorrelations(flag);
+                break;
+            case "splitActionsByTransaction":
+                options.setSplitActionsByTransaction(flag);
+                break;
+            case "maxSamplersPerAction":
+                options.setMaxSamplersPerAction(Integer.parseInt(value));
+                break;
+            case "foldRepeatedRequests":
+                options.setFoldRepeatedRequests(Integer.parseInt(value));
+                break;
+            case "dryRun":
+                options.setDryRun(flag);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + name);
+        }
+    }
+}
@@ -4,15 +4,21 @@ import org.w3c.dom.*;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
-import java.nio.charset.StandardCharsets;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * JMX -> LoadRunner Web/HTTP converter.
@@ -20,14 +26,18 @@ import java.util.List;
  * Features:
  *  - One LR script folder per Thread Group.
  *  - HTTP samplers -> web_url / web_submit_data / web_custom_request (simplified).
- *  - Basic correlation:
- *      * RegexExtractor -> web_reg_save_param_ex(RegExp=...).
+ *  - Basic correlation (see CorrelationConverter):
+ *      * RegexExtractor -> web_reg_save_param_ex(LB/RB=... or RegExp=..., Ordinal, Search).
+ *      * BoundaryExtractor -> web_reg_save_param_ex(LB/RB=...).
  *      * JSONPostProcessor -> web_reg_save_param_json(QueryString=...).
+ *      * XPath / XPath2 / CSS (HtmlExtractor) -> web_reg_save_param_xpath(QueryString=...).
  *  - CSV DataSet:
  *      * Copies CSV into script folder.
  *      * Creates matching .dat file for LoadRunner.
  *      * Writes basic parameter config in default.cfg + parameters.prm.
  *  - JMeter vars ${var} -> LoadRunner {var}.
+ *  - Correlation dataflow: registrations whose parameter is never used are commented out,
+ *    parameters used before definition are reported in conversion.log.
  *  - NO ZIP CREATION.
  */
 public class ConverterCore {
@@ -35,29 +45,45 @@ public class ConverterCore {
     // ==== Public entry ====
 
     public static void convert(File jmxFile, File outputRoot) throws Exception {
+        convert(jmxFile, outputRoot, new ConverterOptions());
+    }
+
+    public static void convert(File jmxFile, File outputRoot, ConverterOptions options) throws Exception {
         if (!jmxFile.exists()) {
             throw new IllegalArgumentException("JMX file does not exist: " + jmxFile);
         }
-        if (!outputRoot.exists() && !outputRoot.mkdirs()) {
+
+        convert(parseXml(jmxFile), jmxFile, outputRoot, options);
+    }
+
+    /**
+     * Converts an already parsed plan. The document is only read, never modified, so a
+     * cached document (see PlanCache) can be reused for any number of conversions.
+     */
+    static void convert(Document document, File jmxFile, File outputRoot, ConverterOptions options) throws Exception {
+        if (!options.isDryRun() && !outputRoot.exists() && !outputRoot.mkdirs()) {
             throw new IllegalStateException("Unable to create output directory: " + outputRoot);
         }
 
-        Document document = parseXml(jmxFile);
-
         NodeList threadGroups = document.getElementsByTagName("ThreadGroup");
         if (threadGroups.getLength() == 0) {
-            System.out.println("No ThreadGroup elements found in JMX.");
+            info(options, "WARNING: No ThreadGroup elements found in JMX.");
         }
 
-        for (int i = 0; i < threadGroups.getLength(); i++) {
-            Element tg = (Element) threadGroups.item(i);
-            processThreadGroup(tg, document, jmxFile.getParentFile(), outputRoot, i + 1);
+        // Files are written by a background thread; close() waits for them and reports I/O errors
+        // (a dry run only counts bytes). Included fragments are parsed at most once.
+        FragmentResolver fragments = new FragmentResolver(document, jmxFile);
+        try (ScriptOutput output = options.isDryRun() ? ScriptOutput.counting() : new ScriptOutput()) {
+            for (int i = 0; i < threadGroups.getLength(); i++) {
+                Element tg = (Element) threadGroups.item(i);
+                processThreadGroup(tg, document, jmxFile.getParentFile(), outputRoot, i + 1, options, output, fragments);
+            }
         }
     }
 
     // ==== XML parsing ====
 
-    private static Document parseXml(File file) throws Exception {
+    static Document parseXml(File file) throws Exception {
         DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
         dbf.setNamespaceAware(false);
         DocumentBuilder db = dbf.newDocumentBuilder();
@@ -70,73 +96,159 @@ public class ConverterCore {
                                            Document doc,
                                            File jmxDir,
                                            File outputRoot,
-                                           int tgIndex) throws Exception {
+                                           int tgIndex,
+                                           ConverterOptions options,
+                                           ScriptOutput output,
+                                           FragmentResolver fragments) throws Exception {
 
         String tgName = tg.getAttribute("testname");
         if (tgName == null || tgName.trim().isEmpty()) {
             tgName = "ThreadGroup_" + tgIndex;
         }
 
+        ConverterEvents.ThreadGroupEvent event = new ConverterEvents.ThreadGroupEvent();
+        event.begin();
+
         String scriptDirName = "Script_" + sanitizeName(tgName);
         File scriptDir = new File(outputRoot, scriptDirName);
-        if (!scriptDir.exists() && !scriptDir.mkdirs()) {
+        if (!options.isDryRun() && !scriptDir.exists() && !scriptDir.mkdirs()) {
             throw new IllegalStateException("Unable to create script directory: " + scriptDir);
         }
 
         // Parse CSV DataSets and copy CSVs + create .dat + parameter definitions
-        List<CsvParameterSet> csvParams = parseAndCopyCsvDataSets(doc, jmxDir, scriptDir);
+        List<CsvParameterSet> csvParams = parseAndCopyCsvDataSets(doc, jmxDir, scriptDir, !options.isDryRun());
+
+        // Dataflow over the whole ThreadGroup: which correlations are consumed, what is undefined
+        Element tgTree = findFollowingHashTree(tg);
+        ThreadGroupContext ctx = new ThreadGroupContext(scriptDir, options, output, fragments);
+        ctx.correlations = CorrelationAnalysis.analyze(tgTree, collectPredefinedNames(doc, csvParams), fragments);
+        for (String problem : ctx.correlations.getProblems()) {
+            log(ctx, "WARNING: " + problem);
+        }
+        ctx.scope = new ConfigScope(tg, tgTree);
+        saveUserDefinedVariables(ctx);
+        applyCacheAndCookieManagers(tg, tgTree, ctx);
 
         // Write LR base files
-        writeVuserInit(scriptDir);
-        writeVuserEnd(scriptDir);
-        writeDefaultCfg(scriptDir, csvParams);
-        writePrmFile(scriptDir, csvParams);
-
-        // Generate Action.c for this Thread Group
-        File actionFile = new File(scriptDir, "Action.c");
-        try (BufferedWriter out = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(actionFile), StandardCharsets.UTF_8))) {
-
-            writeActionHeader(out);
-            out.write("Action()\n{\n");
-            out.write("    int rc = 0;\n\n");
-
-            Element tgTree = findFollowingHashTree(tg);
-            if (tgTree != null) {
-                processHashTree(tgTree, out, false, scriptDir);
-            } else {
-                log(scriptDir, "WARNING: No hashTree found for ThreadGroup '" + tgName + "'.");
-            }
+        writeVuserEnd(ctx);
+        writePrmFile(ctx, csvParams);
 
-            out.write("\n    return 0;\n");
-            out.write("}\n");
+        // Generate Action.c (or Action1.c ... ActionN.c) for this Thread Group
+        if (tgTree == null) {
+            log(ctx, "WARNING: No hashTree found for ThreadGroup '" + tgName + "'.");
+        }
+        List<ActionSegment> segments = planActions(tgTree, options);
+        if (!ctx.iterationCode.isEmpty() && segments.get(0).block != null) {
+            // per-iteration setup must not depend on which weighted branch is picked
+            segments.add(0, new ActionSegment());
         }
+        nameActions(segments);
+        for (ActionSegment segment : segments) {
+            segment.code = renderAction(segment, ctx, segment == segments.get(0));
+        }
+        for (String problem : fragments.drainProblems()) {
+            log(ctx, "WARNING: " + problem);
+        }
+        writeActionFiles(ctx, segments);
+        writeDefaultCfg(ctx, csvParams, segments);
+        if (!ctx.slaThresholds.isEmpty()) {
+            writeSlaFile(ctx);
+        }
+
+        // vuser_init last: it seeds rand() only if controllers in Action.c need it
+        writeVuserInit(ctx);
 
         // Optional simple log
-        writeConversionLog(scriptDir, tgName, csvParams);
+        writeConversionLog(ctx, tgName, csvParams, segments);
+
+        int samplers = 0;
+        for (ActionSegment segment : segments) {
+            samplers += segment.samplerCount;
+        }
+        if (options.isDryRun()) {
+            info(options, estimate(ctx, tgName, samplers, segments, csvParams));
+        } else {
+            info(options, "ThreadGroup '" + tgName + "' -> " + scriptDirName + " (" + samplers + " sampler(s), "
+                    + segments.size() + " action(s), " + ctx.notes.size() + " warning(s))");
+        }
+
+        if (event.shouldCommit()) {
+            event.threadGroup = tgName;
+            event.scriptDir = scriptDir.getAbsolutePath();
+            event.actions = segments.size();
+            event.samplers = samplers;
+            event.commit();
+        }
+    }
+
+    /** One-line dry run report: what converting this ThreadGroup would produce and cost. */
+    private static String estimate(ThreadGroupContext ctx,
+                                   String tgName,
+                                   int samplers,
+                                   List<ActionSegment> segments,
+                                   List<CsvParameterSet> csvParams) {
+        long actionBytes = 0;
+        long largest = 0;
+        String largestName = "";
+        for (ActionSegment segment : segments) {
+            long bytes = ctx.output.size(new File(ctx.scriptDir, segment.name + ".c"));
+            actionBytes += bytes;
+            if (bytes > largest) {
+                largest = bytes;
+                largestName = segment.name + ".c";
+            }
+        }
+        long csvBytes = 0;
+        for (CsvParameterSet set : csvParams) {
+            csvBytes += 2 * set.sourceBytes; // copied as .csv and .dat
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Dry run: ThreadGroup '").append(tgName).append("': ")
+          .append(samplers).append(" sampler(s), ")
+          .append("Action code ").append(formatBytes(actionBytes));
+        if (segments.size() > 1) {
+            sb.append(" in ").append(segments.size()).append(" actions (largest ")
+              .append(largestName).append(" ").append(formatBytes(largest)).append(")");
+        }
+        sb.append(", CSV data to copy ").append(formatBytes(csvBytes))
+          .append(", ").append(Math.round(ctx.responseScans)).append(" response scan(s) per iteration")
+          .append(", unsupported: ").append(ctx.unsupported.isEmpty() ? "none" : ctx.unsupported.toString())
+          .append(", ").append(ctx.notes.size()).append(" warning(s)");
+        return sb.toString();
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
     }
 
     // ==== LR files ====
 
-    private static void writeVuserInit(File scriptDir) throws Exception {
-        File f = new File(scriptDir, "vuser_init.c");
-        try (BufferedWriter out = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(f), StandardCharsets.UTF_8))) {
+    private static void writeVuserInit(ThreadGroupContext ctx) throws Exception {
+        File f = new File(ctx.scriptDir, "vuser_init.c");
+        try (Writer out = ctx.output.open(f)) {
 
             out.write("#include \"lrun.h\"\n");
             out.write("#include \"web_api.h\"\n");
             out.write("#include \"lrw_custom_body.h\"\n\n");
             out.write("vuser_init()\n{\n");
+            if (ctx.usesRandom) {
+                out.write("    srand(time(NULL));\n");
+            }
+            for (String statement : ctx.initCode) {
+                out.write("    " + statement + "\n");
+            }
             out.write("    // TODO: Add login / init steps if needed\n");
             out.write("    return 0;\n");
             out.write("}\n");
         }
     }
 
-    private static void writeVuserEnd(File scriptDir) throws Exception {
-        File f = new File(scriptDir, "vuser_end.c");
-        try (BufferedWriter out = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(f), StandardCharsets.UTF_8))) {
+    private static void writeVuserEnd(ThreadGroupContext ctx) throws Exception {
+        File f = new File(ctx.scriptDir, "vuser_end.c");
+        try (Writer out = ctx.output.open(f)) {
 
             out.write("#include \"lrun.h\"\n");
             out.write("#include \"web_api.h\"\n");
@@ -148,25 +260,66 @@ public class ConverterCore {
         }
     }
 
-    private static void writeActionHeader(BufferedWriter out) throws Exception {
+    private static void writeActionHeader(Writer out) throws Exception {
         out.write("#include \"lrun.h\"\n");
         out.write("#include \"web_api.h\"\n");
         out.write("#include \"lrw_custom_body.h\"\n\n");
     }
 
-    private static void writeDefaultCfg(File scriptDir, List<CsvParameterSet> csvParams) throws Exception {
-        File f = new File(scriptDir, "default.cfg");
-        try (BufferedWriter out = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(f), StandardCharsets.UTF_8))) {
+    private static void writeDefaultCfg(ThreadGroupContext ctx,
+                                        List<CsvParameterSet> csvParams,
+                                        List<ActionSegment> actions) throws Exception {
+        File f = new File(ctx.scriptDir, "default.cfg");
+        try (Writer out = ctx.output.open(f)) {
 
             out.write("[General]\n");
             out.write("DefaultRunLogic=Action\n");
             out.write("\n");
             out.write("[Actions]\n");
             out.write("vuser_init=vuser_init.c\n");
-            out.write("Action=Action.c\n");
+            // run logic: sequential actions and weighted random blocks, in plan order
+            Map<String, List<ActionSegment>> blocks = new LinkedHashMap<>();
+            StringBuilder order = new StringBuilder();
+            for (ActionSegment action : actions) {
+                out.write(action.name + "=" + action.name + ".c\n");
+                String item = action.block != null ? action.block : action.name;
+                if (action.block != null) {
+                    if (blocks.containsKey(action.block)) {
+                        blocks.get(action.block).add(action);
+                        continue;
+                    }
+                    blocks.put(action.block, new ArrayList<>(Collections.singletonList(action)));
+                }
+                if (order.length() > 0) order.append(",");
+                order.append(item);
+            }
             out.write("vuser_end=vuser_end.c\n");
             out.write("\n");
+            out.write("[RunLogic]\n");
+            out.write("RunMode=Sequential\n");
+            out.write("ActionOrder=" + order + "\n");
+            out.write("\n");
+            for (Map.Entry<String, List<ActionSegment>> block : blocks.entrySet()) {
+                out.write("[RunLogic:" + block.getKey() + "]\n");
+                out.write("RunMode=Random\n");
+                StringBuilder blockOrder = new StringBuilder();
+                for (ActionSegment action : block.getValue()) {
+                    if (blockOrder.length() > 0) blockOrder.append(",");
+                    blockOrder.append(action.name);
+                }
+                out.write("ActionOrder=" + blockOrder + "\n");
+                for (ActionSegment action : block.getValue()) {
+                    out.write(action.name + ".Percentage=" + action.percent + "\n");
+                }
+                out.write("\n");
+            }
+            if (!ctx.webSettings.isEmpty()) {
+                out.write("[WEB]\n");
+                for (Map.Entry<String, String> setting : ctx.webSettings.entrySet()) {
+                    out.write(setting.getKey() + "=" + setting.getValue() + "\n");
+                }
+                out.write("\n");
+            }
             out.write("[Parameters]\n\n");
 
             for (CsvParameterSet set : csvParams) {
@@ -184,17 +337,34 @@ public class ConverterCore {
                     out.write("FileName=" + dataFile + "\n");
                     out.write("Column=" + (i + 1) + "\n");
                     out.write("Delimiter=" + (set.delimiter == null || set.delimiter.isEmpty() ? "," : set.delimiter) + "\n");
-                    out.write("SelectNextRow=Sequential\n");
-                    out.write("WhenOutOfRange=Continue\n\n");
+                    out.write("SelectNextRow=" + set.selectNextRow + "\n");
+                    out.write("UpdateValueOn=" + set.updateValueOn + "\n");
+                    out.write("WhenOutOfRange=" + set.whenOutOfRange + "\n\n");
                 }
             }
         }
     }
 
-    private static void writePrmFile(File scriptDir, List<CsvParameterSet> csvParams) throws Exception {
-        File prmFile = new File(scriptDir, "parameters.prm");
-        try (BufferedWriter out = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(prmFile), StandardCharsets.UTF_8))) {
+    /**
+     * Transaction response time limits from Duration Assertions. LR keeps SLAs in the
+     * scenario, so this file lists them in a form that can be entered there (or in Analysis).
+     */
+    private static void writeSlaFile(ThreadGroupContext ctx) throws Exception {
+        File f = new File(ctx.scriptDir, "sla.cfg");
+        try (Writer out = ctx.output.open(f)) {
+            out.write("; Transaction response time SLAs (seconds), from JMeter Duration Assertions.\n");
+            out.write("; JMeter fails each sample above the limit: use them as per-transaction\n");
+            out.write("; Transaction Response Time goals in the Controller scenario or in Analysis.\n");
+            out.write("[TransactionResponseTime]\n");
+            for (Map.Entry<String, Long> sla : ctx.slaThresholds.entrySet()) {
+                out.write(sla.getKey() + "=" + String.format(Locale.ROOT, "%.3f", sla.getValue() / 1000.0) + "\n");
+            }
+        }
+    }
+
+    private static void writePrmFile(ThreadGroupContext ctx, List<CsvParameterSet> csvParams) throws Exception {
+        File prmFile = new File(ctx.scriptDir, "parameters.prm");
+        try (Writer out = ctx.output.open(prmFile)) {
 
             out.write("; Basic PRM mapping generated from JMeter CSV Data Set Config\n");
             out.write("; Please open in VuGen and refine as per your LoadRunner version.\n\n");
@@ -213,9 +383,275 @@ public class ConverterCore {
                     out.write("Type=File\n");
                     out.write("FileName=" + dataFile + "\n");
                     out.write("ColumnDelimiter=" + (set.delimiter == null || set.delimiter.isEmpty() ? "," : set.delimiter) + "\n");
-                    out.write("UpdateMode=Sequential\n");
-                    out.write("WhenOutOfRange=Continue\n\n");
+                    out.write("SelectNextRow=" + set.selectNextRow + "\n");
+                    out.write("UpdateMode=" + set.updateValueOn + "\n");
+                    out.write("WhenOutOfRange=" + set.whenOutOfRange + "\n\n");
+                }
+            }
+        }
+    }
+
+    // ==== Action splitting ====
+
+    /** One generated action function / file and the top-level elements it emits. */
+    private static class ActionSegment {
+        String name;
+        final List<Element> elements = new ArrayList<>();
+        int samplerCount;
+        boolean endsWithTransaction;
+        String code;
+        /** Set for the alternatives of a weighted random run-logic block. */
+        String block;
+        int percent;
+        String label;
+    }
+
+    /**
+     * Splits the top level of the ThreadGroup into actions, either at each
+     * TransactionController or when the sampler count reaches the configured size.
+     * Without splitting there is a single "Action" segment (Action.c).
+     *
+     * A top-level RandomController, or a run of top-level percent ThroughputControllers
+     * adding up to 100%, becomes a random run-logic block: each branch is its own action
+     * with its percentage, so LR reproduces the transaction mix.
+     */
+    private static List<ActionSegment> planActions(Element tgTree, ConverterOptions options) {
+        List<ActionSegment> segments = new ArrayList<>();
+        List<Element> children = new ArrayList<>();
+        if (tgTree != null) {
+            Node node = tgTree.getFirstChild();
+            while (node != null) {
+                if (node.getNodeType() == Node.ELEMENT_NODE && !"hashTree".equals(node.getNodeName())) {
+                    children.add((Element) node);
+                }
+                node = node.getNextSibling();
+            }
+        }
+
+        boolean byTransaction = options.isSplitActionsByTransaction();
+        int maxSamplers = options.getMaxSamplersPerAction();
+        ActionSegment current = null;
+        int blocks = 0;
+
+        for (int i = 0; i < children.size(); i++) {
+            Element el = children.get(i);
+
+            List<Element> mix = percentMix(children, i);
+            List<ActionSegment> weighted = !mix.isEmpty() ? percentActions(mix)
+                    : "RandomController".equals(el.getTagName()) ? randomActions(el) : null;
+            if (weighted != null) {
+                if (!mix.isEmpty()) {
+                    i = children.indexOf(mix.get(mix.size() - 1));
                 }
+                if (weighted.isEmpty()) continue;
+                String block = "Block" + (++blocks);
+                for (ActionSegment action : weighted) {
+                    action.block = block;
+                }
+                segments.addAll(weighted);
+                current = null;
+                continue;
+            }
+
+            int samplers = countSamplers(el);
+            boolean isTxn = "TransactionController".equals(el.getTagName());
+
+            boolean startNew = current == null || current.samplerCount > 0
+                    && ((byTransaction && (isTxn || current.endsWithTransaction))
+                        || (maxSamplers > 0 && current.samplerCount + samplers > maxSamplers));
+            if (startNew) {
+                current = new ActionSegment();
+                segments.add(current);
+            }
+            current.elements.add(el);
+            current.samplerCount += samplers;
+            if (isExecutable(el.getTagName())) {
+                // config elements, timers and assertions do not end the transaction's segment
+                current.endsWithTransaction = isTxn;
+            }
+        }
+
+        if (segments.isEmpty()) {
+            segments.add(new ActionSegment());
+        }
+        return segments;
+    }
+
+    /**
+     * Names sequential actions Action (or Action1..N) and weighted ones after their
+     * controller, as unique C identifiers.
+     */
+    private static void nameActions(List<ActionSegment> segments) {
+        Set<String> used = new HashSet<>();
+        used.add("vuser_init");
+        used.add("vuser_end");
+        List<ActionSegment> sequential = new ArrayList<>();
+        for (ActionSegment segment : segments) {
+            if (segment.block == null) sequential.add(segment);
+        }
+        for (int i = 0; i < sequential.size(); i++) {
+            sequential.get(i).name = sequential.size() == 1 ? "Action" : "Action" + (i + 1);
+            used.add(sequential.get(i).name);
+        }
+        for (ActionSegment segment : segments) {
+            if (segment.block == null) continue;
+            String base = segment.label == null ? "" : segment.label.trim().replaceAll("[^A-Za-z0-9_]", "_");
+            if (base.isEmpty() || Character.isDigit(base.charAt(0))) base = "Action_" + base;
+            String name = base;
+            for (int n = 2; !used.add(name); n++) {
+                name = base + "_" + n;
+            }
+            segment.name = name;
+        }
+    }
+
+    /**
+     * Consecutive top-level ThroughputControllers in percent mode, starting at index, whose
+     * percentages add up to 100 (JMeter runs each with its own probability; LR picks one).
+     */
+    private static List<Element> percentMix(List<Element> children, int index) {
+        List<Element> mix = new ArrayList<>();
+        double sum = 0;
+        for (int i = index; i < children.size(); i++) {
+            Element el = children.get(i);
+            Double percent = percentOf(el);
+            if (percent != null) {
+                mix.add(el);
+                sum += percent;
+            } else if (isExecutable(el.getTagName()) || i == index) {
+                break;
+            }
+        }
+        return mix.size() >= 2 && Math.abs(sum - 100) <= 1 ? mix : new ArrayList<>();
+    }
+
+    /** Percentage of a ThroughputController in percent mode, null otherwise (or if it is a variable). */
+    private static Double percentOf(Element el) {
+        if (!"ThroughputController".equals(el.getTagName())) return null;
+        String style = getProp(el, "ThroughputController.style");
+        if (!"1".equals(style == null ? null : style.trim())) return null;
+        String percent = getFloatProp(el, "ThroughputController.percentThroughput");
+        try {
+            return percent == null ? null : Double.valueOf(percent.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static List<ActionSegment> percentActions(List<Element> mix) {
+        double[] weights = new double[mix.size()];
+        List<ActionSegment> actions = new ArrayList<>();
+        for (int i = 0; i < mix.size(); i++) {
+            Element controller = mix.get(i);
+            weights[i] = percentOf(controller);
+            ActionSegment action = new ActionSegment();
+            action.label = controller.getAttribute("testname");
+            Element tree = findFollowingHashTree(controller);
+            Node node = tree == null ? null : tree.getFirstChild();
+            while (node != null) {
+                if (node.getNodeType() == Node.ELEMENT_NODE) {
+                    action.elements.add((Element) node);
+                    action.samplerCount += "hashTree".equals(node.getNodeName()) ? 0 : countSamplers((Element) node);
+                }
+                node = node.getNextSibling();
+            }
+            actions.add(action);
+        }
+        applyPercentages(actions, weights);
+        return actions;
+    }
+
+    /** RandomController: one action per child, equally likely. */
+    private static List<ActionSegment> randomActions(Element controller) {
+        List<ActionSegment> actions = new ArrayList<>();
+        Element tree = findFollowingHashTree(controller);
+        Node node = tree == null ? null : tree.getFirstChild();
+        while (node != null) {
+            if (node.getNodeType() == Node.ELEMENT_NODE && isExecutable(node.getNodeName())) {
+                ActionSegment action = new ActionSegment();
+                action.label = ((Element) node).getAttribute("testname");
+                action.elements.add((Element) node);
+                action.samplerCount = countSamplers((Element) node);
+                actions.add(action);
+            }
+            node = node.getNextSibling();
+        }
+        double[] weights = new double[actions.size()];
+        Arrays.fill(weights, 1);
+        applyPercentages(actions, weights);
+        return actions;
+    }
+
+    /** Whole percentages proportional to the weights that add up to exactly 100 (largest remainder). */
+    private static void applyPercentages(List<ActionSegment> actions, double[] weights) {
+        double total = 0;
+        for (double w : weights) total += w;
+        int assigned = 0;
+        double[] remainders = new double[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            double exact = total > 0 ? weights[i] * 100 / total : 100.0 / weights.length;
+            actions.get(i).percent = (int) Math.floor(exact);
+            remainders[i] = exact - actions.get(i).percent;
+            assigned += actions.get(i).percent;
+        }
+        for (int left = 100 - assigned; left > 0; left--) {
+            int best = 0;
+            for (int i = 1; i < remainders.length; i++) {
+                if (remainders[i] > remainders[best]) best = i;
+            }
+            actions.get(best).percent++;
+            remainders[best] = -1;
+        }
+    }
+
+    private static int countSamplers(Element el) {
+        if ("HTTPSamplerProxy".equals(el.getTagName()) || PARALLEL_HTTP_SAMPLER.equals(el.getTagName())) {
+            return 1;
+        }
+        Element tree = findFollowingHashTree(el);
+        return tree == null ? 0 : tree.getElementsByTagName("HTTPSamplerProxy").getLength();
+    }
+
+    /** @param first the iteration starts with this action: per-iteration setup goes here */
+    private static String renderAction(ActionSegment segment, ThreadGroupContext ctx, boolean first) throws Exception {
+        ConverterEvents.SamplerBatchEvent event = new ConverterEvents.SamplerBatchEvent();
+        event.begin();
+
+        StringWriter buffer = new StringWriter(Math.max(4096, segment.samplerCount * 512));
+        CodeWriter out = new CodeWriter(buffer);
+
+        writeActionHeader(out);
+        out.write(segment.name + "()\n{\n");
+        out.write("    int rc = 0;\n\n");
+        if (first && !ctx.iterationCode.isEmpty()) {
+            for (String statement : ctx.iterationCode) {
+                out.write("    " + statement + "\n");
+            }
+            out.write("\n");
+        }
+
+        // a weighted action runs in percent of the iterations
+        ctx.scanWeight = segment.block != null ? segment.percent / 100.0 : 1;
+        processSequence(segment.elements, out, false, ctx);
+
+        out.write("\n    return 0;\n");
+        out.write("}\n");
+
+        String code = buffer.toString();
+        if (event.shouldCommit()) {
+            event.action = segment.name;
+            event.samplers = segment.samplerCount;
+            event.characters = code.length();
+            event.commit();
+        }
+        return code;
+    }
+
+    /** Hands each action to the output thread; rendering of the next ThreadGroup continues meanwhile. */
+    private static void writeActionFiles(ThreadGroupContext ctx, List<ActionSegment> segments) throws Exception {
+        for (ActionSegment segment : segments) {
+            try (Writer out = ctx.output.open(new File(ctx.scriptDir, segment.name + ".c"))) {
+                out.write(segment.code);
             }
         }
     }
@@ -223,53 +659,400 @@ public class ConverterCore {
     // ==== HashTree traversal ====
 
     private static void processHashTree(Element hashTree,
-                                        BufferedWriter out,
+                                        CodeWriter out,
                                         boolean insideTransaction,
-                                        File scriptDir) throws Exception {
+                                        ThreadGroupContext ctx) throws Exception {
 
+        List<Element> elements = new ArrayList<>();
         Node node = hashTree.getFirstChild();
         while (node != null) {
             if (node.getNodeType() == Node.ELEMENT_NODE) {
-                Element el = (Element) node;
-                String tag = el.getTagName();
+                elements.add((Element) node);
+            }
+            node = node.getNextSibling();
+        }
+        processSequence(elements, out, insideTransaction, ctx);
+    }
 
-                if ("HTTPSamplerProxy".equals(tag)) {
-                    generateSamplerCode(el, out, insideTransaction, scriptDir);
+    /**
+     * Emits sibling elements in order. Runs of consecutive samplers are rendered first and
+     * passed through RequestFolder, which turns repeated requests into loops.
+     */
+    private static void processSequence(List<Element> elements,
+                                        CodeWriter out,
+                                        boolean insideTransaction,
+                                        ThreadGroupContext ctx) throws Exception {
+        int minRun = ctx.options.getFoldRepeatedRequests();
+        List<String> samplers = new ArrayList<>();
+        for (Element el : elements) {
+            String tag = el.getTagName();
+            if (minRun > 1 && "HTTPSamplerProxy".equals(tag)) {
+                StringWriter block = new StringWriter();
+                generateSamplerCode(el, new CodeWriter(block), insideTransaction, ctx);
+                samplers.add(block.toString());
+                continue;
+            }
+            if (!samplers.isEmpty() && isExecutable(tag)) {
+                RequestFolder.write(samplers, out, minRun, ctx);
+                samplers.clear();
+            }
+            if (!isExecutable(tag)) {
+                noteUnsupported(el, ctx);
+            }
+            processElement(el, out, insideTransaction, ctx);
+        }
+        if (!samplers.isEmpty()) {
+            RequestFolder.write(samplers, out, minRun, ctx);
+        }
+    }
 
-                } else if ("TransactionController".equals(tag)) {
-                    String txnName = el.getAttribute("testname");
-                    if (txnName == null || txnName.trim().isEmpty()) {
-                        txnName = "Txn_" + System.currentTimeMillis();
-                    }
-                    String lrTxnName = escapeForC(txnName);
+    /**
+     * Emits one test element. Its following hashTree sibling is handled here, so the
+     * traversal in processHashTree simply ignores hashTree elements.
+     */
+    private static void processElement(Element el,
+                                       CodeWriter out,
+                                       boolean insideTransaction,
+                                       ThreadGroupContext ctx) throws Exception {
+        String tag = el.getTagName();
+
+        if ("HTTPSamplerProxy".equals(tag)) {
+            generateSamplerCode(el, out, insideTransaction, ctx);
+
+        } else if ("TransactionController".equals(tag)) {
+            String txnName = el.getAttribute("testname");
+            if (txnName == null || txnName.trim().isEmpty()) {
+                txnName = "Txn_" + ctx.nextUnnamedId();
+            }
+            String lrTxnName = escapeForC(txnName);
+
+            out.write("    lr_start_transaction(\"" + lrTxnName + "\");\n\n");
+
+            Element txnTree = findFollowingHashTree(el);
+            if (txnTree != null) {
+                processHashTree(txnTree, out, true, ctx);
+            } else {
+                log(ctx, "WARNING: TransactionController '" + txnName + "' has no hashTree.");
+            }
+
+            out.write("    lr_end_transaction(\"" + lrTxnName + "\", LR_AUTO);\n\n");
+
+        } else if (PARALLEL_CONTROLLER.equals(tag)) {
+            generateParallelCode(el, out, insideTransaction, ctx);
+
+        } else if (PARALLEL_HTTP_SAMPLER.equals(tag)) {
+            generateParallelHttpCode(el, out, insideTransaction, ctx);
+
+        } else if ("IncludeController".equals(tag)) {
+            out.write("    // IncludeController: " + el.getAttribute("testname") + " ("
+                    + getStringProp(el, "IncludeController.includepath") + ")\n");
+            Element included = ctx.fragments.enterInclude(el);
+            if (included == null) {
+                out.write("    // TODO: include could not be resolved, see conversion.log\n\n");
+                return;
+            }
+            ctx.scope.enterFragment(el, included);
+            try {
+                processHashTree(included, out, insideTransaction, ctx);
+            } finally {
+                ctx.scope.exitFragment();
+                ctx.fragments.exit();
+            }
+
+        } else if ("ModuleController".equals(tag)) {
+            out.write("    // ModuleController: " + el.getAttribute("testname") + "\n");
+            Element target = ctx.fragments.enterModule(el);
+            if (target == null) {
+                out.write("    // TODO: module target could not be resolved, see conversion.log\n\n");
+                return;
+            }
+            ctx.scope.enterFragment(el, findFollowingHashTree(target));
+            try {
+                processElement(target, out, insideTransaction, ctx);
+            } finally {
+                ctx.scope.exitFragment();
+                ctx.fragments.exit();
+            }
+
+        } else if (isLogicController(tag)) {
+            generateControllerCode(el, out, insideTransaction, ctx);
+        }
+    }
 
-                    out.write("    lr_start_transaction(\"" + lrTxnName + "\");\n\n");
+    /** Elements handled outside the control flow (CSV, variables, defaults, managers). */
+    private static final Set<String> CONVERTED_CONFIG = new HashSet<>(Arrays.asList(
+            "hashTree", "CSVDataSet", "com.blazemeter.jmeter.RandomCSVDataSetConfig", "Arguments",
+            "ConfigTestElement", "CookieManager", "CacheManager"));
 
-                    Element txnTree = findFollowingHashTree(el);
-                    if (txnTree != null) {
-                        processHashTree(txnTree, out, true, scriptDir);
-                        node = txnTree;
+    private static void noteUnsupported(Element el, ThreadGroupContext ctx) {
+        String tag = el.getTagName();
+        if (!CONVERTED_CONFIG.contains(tag) && !CorrelationConverter.isExtractor(tag)
+                && !AssertionConverter.isAssertion(tag)) {
+            ctx.unsupported.merge(tag, 1, Integer::sum);
+        }
+    }
+
+    // ==== Logic controllers ====
+
+    private static boolean isLogicController(String tag) {
+        switch (tag) {
+            case "GenericController":
+            case "LoopController":
+            case "WhileController":
+            case "IfController":
+            case "ForeachController":
+            case "OnceOnlyController":
+            case "ThroughputController":
+            case "RandomController":
+            case "TestFragmentController":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isExecutable(String tag) {
+        return "HTTPSamplerProxy".equals(tag) || "TransactionController".equals(tag)
+                || "IncludeController".equals(tag) || "ModuleController".equals(tag)
+                || PARALLEL_CONTROLLER.equals(tag) || PARALLEL_HTTP_SAMPLER.equals(tag) || isLogicController(tag);
+    }
+
+    /**
+     * Emits equivalent C control flow around the controller's children so that request
+     * volume per iteration matches JMeter.
+     */
+    private static void generateControllerCode(Element controller,
+                                               CodeWriter out,
+                                               boolean insideTransaction,
+                                               ThreadGroupContext ctx) throws Exception {
+        String tag = controller.getTagName();
+        String name = controller.getAttribute("testname");
+        Element tree = findFollowingHashTree(controller);
+        if (tree == null) {
+            log(ctx, "WARNING: " + tag + " '" + name + "' has no hashTree.");
+            return;
+        }
+
+        out.write("    // " + tag + ": " + name.replace("\n", " ") + "\n");
+
+        switch (tag) {
+            case "LoopController": {
+                String loops = getProp(controller, "LoopController.loops");
+                String var = "loop_" + ctx.nextBlockId();
+                if (loops == null || loops.trim().isEmpty() || "-1".equals(loops.trim())) {
+                    log(ctx, "WARNING: LoopController '" + name + "' loops forever; emitted as for (;;).");
+                    openBlock(out, "for (;;)", null);
+                } else {
+                    openBlock(out, "for (" + var + " = 0; " + var + " < " + toCInt(loops) + "; " + var + "++)",
+                            "int " + var + ";");
+                }
+                double weight = ctx.scanWeight;
+                if (loops != null && loops.trim().matches("\\d{1,9}")) {
+                    ctx.scanWeight *= Integer.parseInt(loops.trim()); // variable or endless: counted once
+                }
+                processHashTree(tree, out, insideTransaction, ctx);
+                ctx.scanWeight = weight;
+                closeBlock(out, true);
+                break;
+            }
+            case "WhileController": {
+                String condition = getStringProp(controller, "WhileController.condition");
+                if (condition == null || condition.trim().isEmpty()) {
+                    // JMeter: loop until the last sample in the loop fails
+                    openBlock(out, "for (;;)", null);
+                    processHashTree(tree, out, insideTransaction, ctx);
+                    out.write("    if (web_get_int_property(HTTP_INFO_RETURN_CODE) >= 400) break;\n");
+                    closeBlock(out, false);
+                    break;
+                }
+                String expr = ConditionTranslator.translate(condition, false, true);
+                if (expr == null) {
+                    log(ctx, "WARNING: While condition '" + condition + "' of '" + name
+                            + "' could not be translated; body is emitted once.");
+                    out.write("    // TODO: while (" + condition.replace("\n", " ") + ")\n");
+                    openBlock(out, "", null);
+                } else {
+                    openBlock(out, "while (" + expr + ")", null);
+                }
+                processHashTree(tree, out, insideTransaction, ctx);
+                closeBlock(out, false);
+                break;
+            }
+            case "IfController": {
+                String condition = getStringProp(controller, "IfController.condition");
+                boolean useExpression = "true".equalsIgnoreCase(getProp(controller, "IfController.useExpression"));
+                String expr = ConditionTranslator.translate(condition, !useExpression, false);
+                if (expr == null) {
+                    log(ctx, "WARNING: If condition '" + condition + "' of '" + name
+                            + "' could not be translated; body is always executed.");
+                    out.write("    // TODO: if (" + (condition == null ? "" : condition.replace("\n", " ")) + ")\n");
+                    openBlock(out, "", null);
+                } else {
+                    openBlock(out, "if (" + expr + ")", null);
+                }
+                processHashTree(tree, out, insideTransaction, ctx);
+                closeBlock(out, false);
+                break;
+            }
+            case "ForeachController": {
+                String input = getStringProp(controller, "ForeachController.inputVal");
+                String output = getStringProp(controller, "ForeachController.returnVal");
+                String start = getStringProp(controller, "ForeachController.startIndex");
+                String end = getStringProp(controller, "ForeachController.endIndex");
+                if (input == null || input.trim().isEmpty() || output == null || output.trim().isEmpty()) {
+                    log(ctx, "WARNING: ForeachController '" + name + "' has no input/output variable; body emitted once.");
+                    openBlock(out, "", null);
+                    processHashTree(tree, out, insideTransaction, ctx);
+                    closeBlock(out, false);
+                    break;
+                }
+                String arr = escapeForC(input.trim());
+                String var = "foreach_" + ctx.nextBlockId();
+                String from = start == null || start.trim().isEmpty() ? "1" : "(" + toCInt(start) + ") + 1";
+                String to = end == null || end.trim().isEmpty() ? "lr_paramarr_len(\"" + arr + "\")" : toCInt(end);
+                openBlock(out, "for (" + var + " = " + from + "; " + var + " <= " + to + "; " + var + "++)",
+                        "int " + var + ";");
+                out.write("    lr_save_string(lr_paramarr_idx(\"" + arr + "\", " + var + "), \""
+                        + escapeForC(output.trim()) + "\");\n\n");
+                processHashTree(tree, out, insideTransaction, ctx);
+                closeBlock(out, true);
+                break;
+            }
+            case "OnceOnlyController": {
+                String var = "once_" + ctx.nextBlockId();
+                openBlock(out, "if (!" + var + ")", "static int " + var + " = 0;");
+                out.write("    " + var + " = 1;\n\n");
+                processHashTree(tree, out, insideTransaction, ctx);
+                closeBlock(out, true);
+                break;
+            }
+            case "ThroughputController": {
+                String style = getProp(controller, "ThroughputController.style");
+                if ("1".equals(style == null ? null : style.trim())) {
+                    String percent = getFloatProp(controller, "ThroughputController.percentThroughput");
+                    String expr = percentCondition(percent == null ? "100" : percent.trim());
+                    if (expr == null) {
+                        log(ctx, "WARNING: Percentage '" + percent + "' of ThroughputController '" + name
+                                + "' could not be translated; body is always executed.");
+                        out.write("    // TODO: execute " + percent.replace("\n", " ") + " percent of the time\n");
+                        openBlock(out, "", null);
                     } else {
-                        log(scriptDir, "WARNING: TransactionController '" + txnName + "' has no hashTree.");
+                        ctx.usesRandom = true;
+                        openBlock(out, "if (" + expr + ")", null);
                     }
-
-                    out.write("    lr_end_transaction(\"" + lrTxnName + "\", LR_AUTO);\n\n");
+                    processHashTree(tree, out, insideTransaction, ctx);
+                    closeBlock(out, false);
+                } else {
+                    String max = getProp(controller, "ThroughputController.maxThroughput");
+                    if (!"true".equalsIgnoreCase(getProp(controller, "ThroughputController.perThread"))) {
+                        log(ctx, "WARNING: ThroughputController '" + name
+                                + "' limits executions across all threads; LR limits them per vuser.");
+                    }
+                    String var = "throughput_" + ctx.nextBlockId();
+                    openBlock(out, "if (" + var + " < " + toCInt(max == null ? "1" : max) + ")",
+                            "static int " + var + " = 0;");
+                    out.write("    " + var + "++;\n\n");
+                    processHashTree(tree, out, insideTransaction, ctx);
+                    closeBlock(out, true);
                 }
+                break;
             }
+            case "RandomController": {
+                List<Element> branches = new ArrayList<>();
+                Node n = tree.getFirstChild();
+                while (n != null) {
+                    if (n.getNodeType() == Node.ELEMENT_NODE && isExecutable(((Element) n).getTagName())) {
+                        branches.add((Element) n);
+                    }
+                    n = n.getNextSibling();
+                }
+                if (branches.isEmpty()) {
+                    break;
+                }
+                ctx.usesRandom = true;
+                out.write("    switch (rand() % " + branches.size() + ") {\n");
+                for (int i = 0; i < branches.size(); i++) {
+                    out.write("    case " + i + ":\n");
+                    out.indent();
+                    processElement(branches.get(i), out, insideTransaction, ctx);
+                    out.write("    break;\n");
+                    out.outdent();
+                }
+                out.write("    }\n\n");
+                break;
+            }
+            default:
+                // GenericController (Simple Controller) and included Test Fragments: children run in place
+                processHashTree(tree, out, insideTransaction, ctx);
+                break;
+        }
+    }
 
-            node = node.getNextSibling();
+    /**
+     * Opens a C block. Declarations need their own enclosing scope so they stay at the
+     * top of a block (LR compiles Action.c as C89).
+     */
+    static void openBlock(CodeWriter out, String header, String declaration) throws Exception {
+        if (declaration != null) {
+            out.write("    {\n");
+            out.indent();
+            out.write("    " + declaration + "\n");
+        }
+        out.write(header.isEmpty() ? "    {\n" : "    " + header + " {\n");
+        out.indent();
+    }
+
+    static void closeBlock(CodeWriter out, boolean withDeclaration) throws Exception {
+        out.outdent();
+        out.write("    }\n");
+        if (withDeclaration) {
+            out.outdent();
+            out.write("    }\n");
+        }
+        out.write("\n");
+    }
+
+    /** Loop counts may be literals or ${var}. */
+    private static String toCInt(String value) {
+        String v = value.trim();
+        if (v.matches("-?\\d+")) {
+            return v;
+        }
+        return "atoi(lr_eval_string(\"" + escapeForC(convertJmeterVarsToLoadRunner(v)) + "\"))";
+    }
+
+    /**
+     * Random draw for a percent-mode ThroughputController: literals keep two decimals,
+     * a plain ${var} goes through toCInt (whole percent). Null for anything else.
+     */
+    private static String percentCondition(String percent) {
+        if (percent.matches("\\$\\{(?!__)[^${}]+}")) {
+            return "rand() % 100 < " + toCInt(percent);
+        }
+        try {
+            return "rand() % 10000 < " + Math.round(Double.parseDouble(percent) * 100);
+        } catch (NumberFormatException ex) {
+            return null;
         }
     }
 
     // ==== Sampler + correlation ====
 
     private static void generateSamplerCode(Element sampler,
-                                            BufferedWriter out,
+                                            CodeWriter out,
+                                            boolean insideTransaction,
+                                            ThreadGroupContext ctx) throws Exception {
+        generateSamplerCode(sampler, out, insideTransaction, false, ctx);
+    }
+
+    private static void generateSamplerCode(Element sampler,
+                                            CodeWriter out,
                                             boolean insideTransaction,
-                                            File scriptDir) throws Exception {
+                                            boolean concurrent,
+                                            ThreadGroupContext ctx) throws Exception {
         String name = sampler.getAttribute("testname");
         if (name == null || name.trim().isEmpty()) {
-            name = "Request_" + System.currentTimeMillis();
+            name = "Request_" + ctx.nextUnnamedId();
         }
 
         String method = getStringProp(sampler, "HTTPSampler.method");
@@ -277,37 +1060,31 @@ public class ConverterCore {
             method = "GET";
         }
 
-        String baseUrl = buildBaseUrl(sampler);
+        String baseUrl = buildBaseUrl(sampler, ctx);
         List<HttpArgument> args = extractHttpArguments(sampler);
         boolean postBodyRaw = isPostBodyRaw(sampler);
 
         String lrName = escapeForC(name);
         String baseUrlLr = escapeForC(convertJmeterVarsToLoadRunner(baseUrl));
 
-        // Regex Extractors -> web_reg_save_param_ex
-        List<RegexCorrelation> regexCorrs = extractRegexExtractors(sampler);
-        for (RegexCorrelation rc : regexCorrs) {
-            String paramEsc = escapeForC(rc.paramName);
-            String regexEsc = escapeForC(convertJmeterVarsToLoadRunner(rc.regex));
-
-            out.write("    web_reg_save_param_ex(\n");
-            out.write("        \"ParamName=" + paramEsc + "\",\n");
-            out.write("        \"RegExp=" + regexEsc + "\",\n");
-            out.write("        LAST);\n\n");
+        // Extractors -> web_reg_save_param_ex / _regexp / _json / _xpath
+        for (CorrelationConverter.Correlation corr : CorrelationConverter.convert(sampler, ctx)) {
+            writeCorrelation(out, ctx, corr);
         }
 
-        // JSON Extractors -> web_reg_save_param_json
-        List<JsonCorrelation> jsonCorrs = extractJsonExtractors(sampler);
-        for (JsonCorrelation jc : jsonCorrs) {
-            String paramEsc = escapeForC(jc.paramName);
-            String queryEsc = escapeForC(convertJmeterVarsToLoadRunner(jc.jsonPathExpr));
-
-            out.write("    web_reg_save_param_json(\n");
-            out.write("        \"ParamName=" + paramEsc + "\",\n");
-            out.write("        \"QueryString=" + queryEsc + "\",\n");
-            out.write("        LAST);\n\n");
+        Element samplerTree = findFollowingHashTree(sampler);
+        for (Node child = samplerTree == null ? null : samplerTree.getFirstChild(); child != null;
+             child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                noteUnsupported((Element) child, ctx);
+            }
         }
 
+        // Assertions -> web_reg_find / checks after the request / SLA thresholds
+        AssertionConverter.Checks checks = AssertionConverter.convert(sampler,
+                insideTransaction ? null : name, concurrent, ctx);
+        out.write(checks.before.toString());
+
         if (!insideTransaction) {
             out.write("    lr_start_transaction(\"" + lrName + "\");\n\n");
         }
@@ -316,12 +1093,7 @@ public class ConverterCore {
             String fullUrl = appendQueryString(baseUrl, args);
             fullUrl = escapeForC(convertJmeterVarsToLoadRunner(fullUrl));
 
-            out.write("    web_url(\"" + lrName + "\",\n");
-            out.write("        \"URL=" + fullUrl + "\",\n");
-            out.write("        \"TargetFrame=\",\n");
-            out.write("        \"Resource=0\",\n");
-            out.write("        \"Mode=HTTP\",\n");
-            out.write("        LAST);\n\n");
+            writeWebUrl(out, lrName, fullUrl);
 
         } else {
             if (postBodyRaw) {
@@ -366,11 +1138,333 @@ public class ConverterCore {
             }
         }
 
+        if (checks.after.length() > 0) {
+            out.write(checks.after.toString());
+            out.write("\n");
+        }
+
+        if (!insideTransaction) {
+            out.write("    lr_end_transaction(\"" + lrName + "\", LR_AUTO);\n\n");
+        }
+    }
+
+    private static void writeWebUrl(Writer out, String lrName, String url) throws Exception {
+        out.write("    web_url(\"" + lrName + "\",\n");
+        out.write("        \"URL=" + url + "\",\n");
+        out.write("        \"TargetFrame=\",\n");
+        out.write("        \"Resource=0\",\n");
+        out.write("        \"Mode=HTTP\",\n");
+        out.write("        LAST);\n\n");
+    }
+
+    // ==== User Defined Variables ====
+
+    /**
+     * JMeter evaluates User Defined Variables once at start-up, so they are saved once per
+     * vuser in vuser_init instead of being resolved for every request.
+     */
+    private static void saveUserDefinedVariables(ThreadGroupContext ctx) {
+        for (Map.Entry<String, String> udv : ctx.scope.userDefinedVariables().entrySet()) {
+            String name = escapeForC(udv.getKey());
+            String value = udv.getValue();
+            if (value.contains("${__")) {
+                log(ctx, "WARNING: User Defined Variable '" + udv.getKey() + "' uses a JMeter function ("
+                        + value + "); saved as TODO in vuser_init.");
+                ctx.initCode.add("// TODO: " + name + " = " + value.replace("\n", " "));
+                continue;
+            }
+            String lrValue = "\"" + escapeForC(convertJmeterVarsToLoadRunner(value)) + "\"";
+            if (value.contains("${")) {
+                lrValue = "lr_eval_string(" + lrValue + ")";
+            }
+            ctx.initCode.add("lr_save_string(" + lrValue + ", \"" + name + "\");");
+            ctx.userVariables.add(udv.getKey());
+        }
+    }
+
+    // ==== Cache & cookie managers ====
+
+    /**
+     * Maps the HTTP Cache Manager and HTTP Cookie Manager in scope of the ThreadGroup.
+     * When either is present, LR's "simulate a new user each iteration" (ResetContext) is
+     * turned off so that only the emitted web_cache_cleanup()/web_cleanup_cookies() calls
+     * decide what is cleared, exactly where JMeter clears it: at the start of each
+     * iteration. Without managers the run-time settings keep LR's defaults.
+     */
+    private static void applyCacheAndCookieManagers(Element tg, Element tgTree, ThreadGroupContext ctx) {
+        Element cache = findInScope(tg, tgTree, "CacheManager");
+        Element cookies = findInScope(tg, tgTree, "CookieManager");
+        if (cache == null && cookies == null) {
+            log(ctx, "WARNING: No HTTP Cookie Manager in scope: JMeter sent no cookies, LR always replays them.");
+            return;
+        }
+        ctx.webSettings.put("ResetContext", "False");
+
+        if (cache == null) {
+            // no Cache Manager: JMeter downloads everything every time
+            ctx.webSettings.put("SimulateCache", "0");
+        } else {
+            String useExpires = getProp(cache, "useExpires");
+            ctx.webSettings.put("SimulateCache", "1");
+            // without Expires/Cache-Control handling JMeter revalidates every cached resource
+            ctx.webSettings.put("CacheAlwaysCheckForNewerPages",
+                    useExpires == null || "true".equalsIgnoreCase(useExpires) ? "0" : "1");
+            if ("true".equalsIgnoreCase(getProp(cache, "clearEachIteration"))) {
+                ctx.iterationCode.add("web_cache_cleanup();");
+            }
+            String maxSize = getProp(cache, "maxSize");
+            if (maxSize != null && !maxSize.trim().isEmpty() && !"5000".equals(maxSize.trim())) {
+                log(ctx, "WARNING: Cache Manager '" + cache.getAttribute("testname") + "' keeps at most " + maxSize.trim()
+                        + " entries; LR's browser cache has no entry limit.");
+            }
+        }
+
+        if (cookies == null) {
+            log(ctx, "WARNING: No HTTP Cookie Manager in scope: JMeter sent no cookies, LR always replays them.");
+            return;
+        }
+        boolean clearEachIteration = "true".equalsIgnoreCase(getProp(cookies, "CookieManager.clearEachIteration"));
+        if (clearEachIteration) {
+            ctx.iterationCode.add("web_cleanup_cookies();");
+        }
+        String policy = getStringProp(cookies, "CookieManager.policy");
+        if ("ignoreCookies".equalsIgnoreCase(policy == null ? null : policy.trim())) {
+            log(ctx, "WARNING: Cookie Manager '" + cookies.getAttribute("testname")
+                    + "' ignores cookies; LR has no equivalent and replays them.");
+        }
+        // user-defined cookies are restored whenever the cookie store is cleared
+        List<String> target = clearEachIteration ? ctx.iterationCode : ctx.initCode;
+        for (String cookie : userDefinedCookies(cookies)) {
+            target.add("web_add_cookie(\"" + escapeForC(convertJmeterVarsToLoadRunner(cookie)) + "\");");
+        }
+    }
+
+    /** "name=value; DOMAIN=...; PATH=..." for each cookie in CookieManager.cookies. */
+    private static List<String> userDefinedCookies(Element cookieManager) {
+        List<String> result = new ArrayList<>();
+        NodeList props = cookieManager.getElementsByTagName("elementProp");
+        for (int i = 0; i < props.getLength(); i++) {
+            Element cookie = (Element) props.item(i);
+            if (!"Cookie".equals(cookie.getAttribute("elementType"))) continue;
+            StringBuilder sb = new StringBuilder(cookie.getAttribute("name"));
+            String value = getProp(cookie, "Cookie.value");
+            sb.append("=").append(value == null ? "" : value);
+            String domain = getProp(cookie, "Cookie.domain");
+            if (domain != null && !domain.trim().isEmpty()) sb.append("; DOMAIN=").append(domain.trim());
+            String path = getProp(cookie, "Cookie.path");
+            if (path != null && !path.trim().isEmpty()) sb.append("; PATH=").append(path.trim());
+            result.add(sb.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Config elements apply to everything below their parent: the nearest one wins, looking
+     * at the ThreadGroup's own children first, then outwards up to the TestPlan.
+     */
+    private static Element findInScope(Element tg, Element tgTree, String tag) {
+        Element found = tgTree == null ? null : findChild(tgTree, tag);
+        Node scope = tg.getParentNode();
+        while (found == null && scope instanceof Element && "hashTree".equals(((Element) scope).getTagName())) {
+            found = findChild((Element) scope, tag);
+            scope = scope.getParentNode();
+        }
+        return found;
+    }
+
+    private static Element findChild(Element hashTree, String tag) {
+        Node node = hashTree.getFirstChild();
+        while (node != null) {
+            if (node.getNodeType() == Node.ELEMENT_NODE && tag.equals(node.getNodeName())) {
+                return (Element) node;
+            }
+            node = node.getNextSibling();
+        }
+        return null;
+    }
+
+    // ==== Parallel requests ====
+
+    /** bzm Parallel Controller and Parallel HTTP Requests sampler (jpgc-parallel). */
+    private static final String PARALLEL_CONTROLLER = "com.blazemeter.jmeter.controller.ParallelSampler";
+    private static final String PARALLEL_HTTP_SAMPLER = "com.blazemeter.jmeter.http.ParallelHTTPSampler";
+
+    /**
+     * bzm Parallel Controller: its children run at the same time. LR runs the requests
+     * between web_concurrent_start/end concurrently, but transactions cannot start or end
+     * inside the group, so the controller becomes one transaction around it.
+     */
+    private static void generateParallelCode(Element controller,
+                                             CodeWriter out,
+                                             boolean insideTransaction,
+                                             ThreadGroupContext ctx) throws Exception {
+        String name = controller.getAttribute("testname");
+        if (name == null || name.trim().isEmpty()) {
+            name = "Parallel_" + ctx.nextUnnamedId();
+        }
+        Element tree = findFollowingHashTree(controller);
+        if (tree == null) {
+            log(ctx, "WARNING: Parallel Controller '" + name + "' has no hashTree.");
+            return;
+        }
+
+        List<Element> requests = new ArrayList<>();
+        List<Element> sequential = new ArrayList<>();
+        collectParallelRequests(tree, requests, sequential, name, ctx);
+
+        String lrName = escapeForC(name);
+        out.write("    // Parallel Controller: " + name.replace("\n", " ") + "\n");
+        if (!insideTransaction) {
+            out.write("    lr_start_transaction(\"" + lrName + "\");\n\n");
+        }
+        if (!requests.isEmpty()) {
+            out.write("    web_concurrent_start(NULL);\n\n");
+            out.indent();
+            for (Element request : requests) {
+                if (PARALLEL_HTTP_SAMPLER.equals(request.getTagName())) {
+                    writeParallelUrls(request, out, ctx);
+                } else {
+                    generateSamplerCode(request, out, true, true, ctx);
+                }
+            }
+            out.outdent();
+            out.write("    web_concurrent_end(NULL);\n\n");
+        }
+        for (Element el : sequential) {
+            processElement(el, out, true, ctx);
+        }
         if (!insideTransaction) {
             out.write("    lr_end_transaction(\"" + lrName + "\", LR_AUTO);\n\n");
         }
     }
 
+    /**
+     * Requests that can go into the concurrent group. Simple and Transaction Controllers
+     * are flattened; controllers with control flow cannot run inside the group and are
+     * emitted after it.
+     */
+    private static void collectParallelRequests(Element hashTree,
+                                                List<Element> requests,
+                                                List<Element> sequential,
+                                                String parallelName,
+                                                ThreadGroupContext ctx) {
+        Node node = hashTree.getFirstChild();
+        while (node != null) {
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                Element el = (Element) node;
+                String tag = el.getTagName();
+                Element tree = findFollowingHashTree(el);
+                if ("HTTPSamplerProxy".equals(tag) || PARALLEL_HTTP_SAMPLER.equals(tag)) {
+                    requests.add(el);
+                } else if (("GenericController".equals(tag) || "TransactionController".equals(tag)) && tree != null) {
+                    if ("TransactionController".equals(tag)) {
+                        log(ctx, "WARNING: Transaction '" + el.getAttribute("testname") + "' inside Parallel Controller '"
+                                + parallelName + "' is merged into the parallel transaction (LR cannot time it inside web_concurrent).");
+                    }
+                    collectParallelRequests(tree, requests, sequential, parallelName, ctx);
+                } else if (isExecutable(tag)) {
+                    log(ctx, "WARNING: " + tag + " '" + el.getAttribute("testname") + "' inside Parallel Controller '"
+                            + parallelName + "' runs after the concurrent requests.");
+                    sequential.add(el);
+                }
+            }
+            node = node.getNextSibling();
+        }
+    }
+
+    /** bzm Parallel HTTP Requests sampler: fetches all of its URLs concurrently. */
+    private static void generateParallelHttpCode(Element sampler,
+                                                 CodeWriter out,
+                                                 boolean insideTransaction,
+                                                 ThreadGroupContext ctx) throws Exception {
+        String name = sampler.getAttribute("testname");
+        if (name == null || name.trim().isEmpty()) {
+            name = "Request_" + ctx.nextUnnamedId();
+        }
+        String lrName = escapeForC(name);
+
+        for (CorrelationConverter.Correlation corr : CorrelationConverter.convert(sampler, ctx)) {
+            writeCorrelation(out, ctx, corr);
+        }
+        if (!insideTransaction) {
+            out.write("    lr_start_transaction(\"" + lrName + "\");\n\n");
+        }
+        out.write("    web_concurrent_start(NULL);\n\n");
+        out.indent();
+        writeParallelUrls(sampler, out, ctx);
+        out.outdent();
+        out.write("    web_concurrent_end(NULL);\n\n");
+        if (!insideTransaction) {
+            out.write("    lr_end_transaction(\"" + lrName + "\", LR_AUTO);\n\n");
+        }
+    }
+
+    private static void writeParallelUrls(Element sampler, Writer out, ThreadGroupContext ctx) throws Exception {
+        String name = sampler.getAttribute("testname");
+        List<String> urls = parallelUrls(sampler);
+        if (urls.isEmpty()) {
+            log(ctx, "WARNING: Parallel HTTP sampler '" + name + "' has no URLs.");
+        }
+        for (int i = 0; i < urls.size(); i++) {
+            writeWebUrl(out, escapeForC(name + "_" + (i + 1)), escapeForC(convertJmeterVarsToLoadRunner(urls.get(i))));
+        }
+    }
+
+    /** The "urls" table holds one row (collectionProp) per URL; the URL is its first column. */
+    private static List<String> parallelUrls(Element sampler) {
+        List<String> urls = new ArrayList<>();
+        NodeList children = sampler.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            Node n = children.item(i);
+            if (n.getNodeType() != Node.ELEMENT_NODE || !"urls".equals(((Element) n).getAttribute("name"))) continue;
+            Node row = n.getFirstChild();
+            while (row != null) {
+                if (row.getNodeType() == Node.ELEMENT_NODE) {
+                    Node cell = row.getFirstChild();
+                    while (cell != null && cell.getNodeType() != Node.ELEMENT_NODE) {
+                        cell = cell.getNextSibling();
+                    }
+                    String url = cell != null ? cell.getTextContent() : row.getTextContent();
+                    if (url != null && !url.trim().isEmpty()) {
+                        urls.add(url.trim());
+                    }
+                }
+                row = row.getNextSibling();
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Writes a correlation registration, or comments it out when the dataflow analysis
+     * shows its parameter is never consumed (saves a runtime scan of every response).
+     * A TODO in place of a registration is written as is and costs no scan.
+     */
+    private static void writeCorrelation(Writer out,
+                                         ThreadGroupContext ctx,
+                                         CorrelationConverter.Correlation corr) throws Exception {
+        String paramName = corr.paramName;
+        String code = corr.code;
+        if (!corr.registers) {
+            out.write(code);
+            return;
+        }
+        if (!ctx.options.isPruneUnusedCorrelations() || ctx.correlations.isUsed(paramName)) {
+            out.write(code);
+            ctx.responseScans += ctx.scanWeight;
+            return;
+        }
+
+        out.write("    // Pruned: {" + escapeForC(paramName.trim()) + "} is never referenced in this script.\n");
+        for (String line : code.split("\n")) {
+            if (!line.trim().isEmpty()) {
+                out.write((line.startsWith("    ") ? "    // " + line.substring(4) : "// " + line) + "\n");
+            }
+        }
+        out.write("\n");
+        ctx.prunedCorrelations.add(paramName.trim());
+    }
+
     // ==== HTTP arguments ====
 
     private static class HttpArgument {
@@ -470,91 +1564,97 @@ public class ConverterCore {
         return sb.toString();
     }
 
-    // ==== Correlation: Regex & JSON ====
-
-    private static class RegexCorrelation {
-        String paramName;
-        String regex;
-    }
+    // ==== CSV + DAT ====
 
-    private static class JsonCorrelation {
-        String paramName;
-        String jsonPathExpr;
+    private static class CsvParameterSet {
+        String fileName;     // original CSV file name (in script dir)
+        String datFileName;  // generated .dat file name (in script dir)
+        List<String> variableNames;
+        String delimiter;
+        String selectNextRow = "Sequential";   // Sequential / Unique / Random
+        String updateValueOn = "EachIteration"; // EachIteration / EachOccurrence
+        String whenOutOfRange = "ContinueCyclic"; // AbortVuser / ContinueCyclic / ContinueWithLast
+        String jmeterModes;  // the JMeter settings the above were derived from
+        String note;         // difference LR cannot express, or null
+        long sourceBytes;    // size of the source CSV
     }
 
-    private static List<RegexCorrelation> extractRegexExtractors(Element sampler) {
-        List<RegexCorrelation> result = new ArrayList<>();
-
-        Element samplerTree = findFollowingHashTree(sampler);
-        if (samplerTree == null) {
-            return result;
+    /** Random CSV Data Set Config from the BlazeMeter plugins (jpgc-csvs). */
+    private static final String RANDOM_CSV_DATA_SET = "com.blazemeter.jmeter.RandomCSVDataSetConfig";
+
+    /**
+     * Maps JMeter's data sharing settings to LR parameter selection:
+     *  - shareMode all/group (one shared file pointer) -> Unique, shareMode thread -> Sequential,
+     *    random order -> Random
+     *  - recycle -> ContinueCyclic, otherwise stopThread -> AbortVuser, else ContinueWithLast
+     *    (JMeter hands out &lt;EOF&gt;)
+     *  - a data set under a loop reads a row per loop pass; LR has no per-pass update, and
+     *    EachOccurrence would give two references in one pass different rows, so it stays
+     *    EachIteration with a note in conversion.log
+     */
+    private static void applySelectionModes(Element csv, CsvParameterSet set) {
+        boolean underLoop = isUnderLoop(csv);
+        set.updateValueOn = "EachIteration";
+
+        if (RANDOM_CSV_DATA_SET.equals(csv.getTagName())) {
+            boolean random = "true".equalsIgnoreCase(getProp(csv, "randomOrder"));
+            boolean perThread = "true".equalsIgnoreCase(getProp(csv, "independentListPerThread"));
+            String rewind = getProp(csv, "rewindOnTheEndOfList");
+            boolean rewindOnEnd = rewind == null || "true".equalsIgnoreCase(rewind);
+            set.selectNextRow = random ? "Random" : perThread ? "Sequential" : "Unique";
+            set.whenOutOfRange = rewindOnEnd ? "ContinueCyclic" : "AbortVuser";
+            set.jmeterModes = "randomOrder=" + random + ", independentListPerThread=" + perThread
+                    + ", rewindOnTheEndOfList=" + rewindOnEnd;
+        } else {
+            String shareMode = getStringProp(csv, "shareMode");
+            if (shareMode == null || shareMode.trim().isEmpty()) shareMode = "shareMode.all";
+            String recycle = getProp(csv, "recycle");
+            boolean recycleOnEof = recycle == null || "true".equalsIgnoreCase(recycle);
+            boolean stopThread = "true".equalsIgnoreCase(getProp(csv, "stopThread"));
+            set.selectNextRow = "shareMode.thread".equals(shareMode.trim()) ? "Sequential" : "Unique";
+            set.whenOutOfRange = recycleOnEof ? "ContinueCyclic" : stopThread ? "AbortVuser" : "ContinueWithLast";
+            set.jmeterModes = shareMode.trim() + ", recycle=" + recycleOnEof + ", stopThread=" + stopThread;
         }
-
-        Node node = samplerTree.getFirstChild();
-        while (node != null) {
-            if (node.getNodeType() == Node.ELEMENT_NODE) {
-                Element el = (Element) node;
-                if ("RegexExtractor".equals(el.getTagName())) {
-                    RegexCorrelation rc = new RegexCorrelation();
-                    rc.paramName = getStringProp(el, "RegexExtractor.refname");
-                    rc.regex = getStringProp(el, "RegexExtractor.regex");
-                    if (rc.paramName != null && rc.regex != null &&
-                            !rc.paramName.trim().isEmpty() && !rc.regex.trim().isEmpty()) {
-                        result.add(rc);
-                    }
-                }
-            }
-            node = node.getNextSibling();
+        if (underLoop) {
+            set.jmeterModes += ", inside a loop";
+            set.note = "JMeter reads the next row on every loop pass, LR once per iteration;"
+                    + " call lr_advance_param at the top of the loop body if each pass needs its own row.";
         }
-
-        return result;
     }
 
-    private static List<JsonCorrelation> extractJsonExtractors(Element sampler) {
-        List<JsonCorrelation> result = new ArrayList<>();
-
-        Element samplerTree = findFollowingHashTree(sampler);
-        if (samplerTree == null) {
-            return result;
-        }
-
-        Node node = samplerTree.getFirstChild();
-        while (node != null) {
-            if (node.getNodeType() == Node.ELEMENT_NODE) {
-                Element el = (Element) node;
-                if ("JSONPostProcessor".equals(el.getTagName())) {
-                    JsonCorrelation jc = new JsonCorrelation();
-                    jc.paramName = getStringProp(el, "JSONPostProcessor.referenceName");
-                    jc.jsonPathExpr = getStringProp(el, "JSONPostProcessor.jsonPathExpr");
-                    if (jc.paramName != null && jc.jsonPathExpr != null &&
-                            !jc.paramName.trim().isEmpty() && !jc.jsonPathExpr.trim().isEmpty()) {
-                        result.add(jc);
-                    }
-                }
+    /** True if an enclosing controller (below the ThreadGroup) repeats its children. */
+    private static boolean isUnderLoop(Element el) {
+        Node parent = el.getParentNode();
+        while (parent instanceof Element && "hashTree".equals(((Element) parent).getTagName())) {
+            Node owner = parent.getPreviousSibling();
+            while (owner != null && owner.getNodeType() != Node.ELEMENT_NODE) {
+                owner = owner.getPreviousSibling();
             }
-            node = node.getNextSibling();
+            if (owner == null) return false;
+            String tag = ((Element) owner).getTagName();
+            if ("ThreadGroup".equals(tag)) return false;
+            if ("LoopController".equals(tag) || "WhileController".equals(tag) || "ForeachController".equals(tag)) {
+                return true;
+            }
+            parent = parent.getParentNode();
         }
-
-        return result;
-    }
-
-    // ==== CSV + DAT ====
-
-    private static class CsvParameterSet {
-        String fileName;     // original CSV file name (in script dir)
-        String datFileName;  // generated .dat file name (in script dir)
-        List<String> variableNames;
-        String delimiter;
+        return false;
     }
 
     private static List<CsvParameterSet> parseAndCopyCsvDataSets(Document doc,
                                                                  File jmxDir,
-                                                                 File scriptDir) {
+                                                                 File scriptDir,
+                                                                 boolean copy) {
         List<CsvParameterSet> result = new ArrayList<>();
 
-        NodeList csvNodes = doc.getElementsByTagName("CSVDataSet");
-        for (int i = 0; i < csvNodes.getLength(); i++) {
-            Element csv = (Element) csvNodes.item(i);
+        List<Element> csvElements = new ArrayList<>();
+        for (String tag : new String[]{"CSVDataSet", RANDOM_CSV_DATA_SET}) {
+            NodeList csvNodes = doc.getElementsByTagName(tag);
+            for (int i = 0; i < csvNodes.getLength(); i++) {
+                csvElements.add((Element) csvNodes.item(i));
+            }
+        }
+        for (Element csv : csvElements) {
 
             String filename = getStringProp(csv, "filename");
             String variableNames = getStringProp(csv, "variableNames");
@@ -576,7 +1676,7 @@ public class ConverterCore {
             // Copy CSV
             File destCsv = new File(scriptDir, src.getName());
             try {
-                Files.copy(src.toPath(), destCsv.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                if (copy) copyDataFile(src, destCsv);
             } catch (Exception ex) {
                 ex.printStackTrace();
             }
@@ -587,7 +1687,7 @@ public class ConverterCore {
             String datName = (dot > 0 ? baseName.substring(0, dot) : baseName) + ".dat";
             File destDat = new File(scriptDir, datName);
             try {
-                Files.copy(destCsv.toPath(), destDat.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                if (copy) copyDataFile(destCsv, destDat);
             } catch (Exception ex) {
                 ex.printStackTrace();
             }
@@ -595,8 +1695,10 @@ public class ConverterCore {
             CsvParameterSet set = new CsvParameterSet();
             set.fileName = destCsv.getName();
             set.datFileName = destDat.getName();
+            set.sourceBytes = src.length();
             set.delimiter = delimiter != null ? delimiter : ",";
             set.variableNames = new ArrayList<>();
+            applySelectionModes(csv, set);
 
             if (variableNames != null && !variableNames.trim().isEmpty()) {
                 String[] vars = variableNames.split(",");
@@ -613,9 +1715,21 @@ public class ConverterCore {
         return result;
     }
 
+    private static void copyDataFile(File src, File dest) throws Exception {
+        ConverterEvents.CsvCopyEvent event = new ConverterEvents.CsvCopyEvent();
+        event.begin();
+        Files.copy(src.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        if (event.shouldCommit()) {
+            event.source = src.getAbsolutePath();
+            event.destination = dest.getAbsolutePath();
+            event.bytes = dest.length();
+            event.commit();
+        }
+    }
+
     // ==== XML helpers ====
 
-    private static String getStringProp(Element parent, String nameAttr) {
+    static String getStringProp(Element parent, String nameAttr) {
         NodeList children = parent.getChildNodes();
         for (int i = 0; i < children.getLength(); i++) {
             Node n = children.item(i);
@@ -629,7 +1743,48 @@ public class ConverterCore {
         return null;
     }
 
-    private static Element findFollowingHashTree(Element elem) {
+    /** Value of a stringProp or intProp (controllers store counts as either). */
+    static String getProp(Element parent, String nameAttr) {
+        NodeList children = parent.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            Node n = children.item(i);
+            if (n.getNodeType() != Node.ELEMENT_NODE) continue;
+            Element el = (Element) n;
+            String tag = el.getTagName();
+            if (("stringProp".equals(tag) || "intProp".equals(tag) || "boolProp".equals(tag) || "longProp".equals(tag))
+                    && nameAttr.equals(el.getAttribute("name"))) {
+                return el.getTextContent();
+            }
+        }
+        return null;
+    }
+
+    /** Value of a FloatProperty (name/value child elements) or a plain stringProp. */
+    private static String getFloatProp(Element parent, String nameAttr) {
+        NodeList children = parent.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            Node n = children.item(i);
+            if (n.getNodeType() != Node.ELEMENT_NODE) continue;
+            Element el = (Element) n;
+            if ("FloatProperty".equals(el.getTagName())) {
+                NodeList parts = el.getChildNodes();
+                String name = null;
+                String value = null;
+                for (int j = 0; j < parts.getLength(); j++) {
+                    Node p = parts.item(j);
+                    if (p.getNodeType() != Node.ELEMENT_NODE) continue;
+                    if ("name".equals(p.getNodeName())) name = p.getTextContent().trim();
+                    if ("value".equals(p.getNodeName())) value = p.getTextContent().trim();
+                }
+                if (nameAttr.equals(name)) {
+                    return value;
+                }
+            }
+        }
+        return getProp(parent, nameAttr);
+    }
+
+    static Element findFollowingHashTree(Element elem) {
         Node sib = elem.getNextSibling();
         while (sib != null) {
             if (sib.getNodeType() == Node.ELEMENT_NODE) {
@@ -643,11 +1798,13 @@ public class ConverterCore {
         return null;
     }
 
-    private static String buildBaseUrl(Element sampler) {
-        String domain = getStringProp(sampler, "HTTPSampler.domain");
-        String protocol = getStringProp(sampler, "HTTPSampler.protocol");
-        String port = getStringProp(sampler, "HTTPSampler.port");
-        String path = getStringProp(sampler, "HTTPSampler.path");
+    /** Sampler URL; empty fields come from the HTTP Request Defaults in scope. */
+    private static String buildBaseUrl(Element sampler, ThreadGroupContext ctx) {
+        ConfigScope.HttpDefaults defaults = ctx.scope.httpDefaults(sampler);
+        String domain = orDefault(getStringProp(sampler, "HTTPSampler.domain"), defaults.domain);
+        String protocol = orDefault(getStringProp(sampler, "HTTPSampler.protocol"), defaults.protocol);
+        String port = orDefault(getStringProp(sampler, "HTTPSampler.port"), defaults.port);
+        String path = orDefault(getStringProp(sampler, "HTTPSampler.path"), defaults.path);
 
         if (protocol == null || protocol.trim().isEmpty()) {
             protocol = "http";
@@ -668,14 +1825,39 @@ public class ConverterCore {
         return sb.toString();
     }
 
+    private static String orDefault(String value, String fallback) {
+        return value == null || value.trim().isEmpty() ? fallback : value;
+    }
+
+    /** Names defined outside of extractors: CSV columns and user defined variables. */
+    private static Set<String> collectPredefinedNames(Document doc, List<CsvParameterSet> csvParams) {
+        Set<String> names = new LinkedHashSet<>();
+        for (CsvParameterSet set : csvParams) {
+            names.addAll(set.variableNames);
+        }
+
+        NodeList props = doc.getElementsByTagName("elementProp");
+        for (int i = 0; i < props.getLength(); i++) {
+            Element el = (Element) props.item(i);
+            if ("Argument".equals(el.getAttribute("elementType"))) {
+                String name = getStringProp(el, "Argument.name");
+                if (name != null && !name.trim().isEmpty()) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        return names;
+    }
+
     // ==== Logging & utils ====
 
-    private static void writeConversionLog(File scriptDir,
+    private static void writeConversionLog(ThreadGroupContext ctx,
                                            String tgName,
-                                           List<CsvParameterSet> csvParams) throws Exception {
+                                           List<CsvParameterSet> csvParams,
+                                           List<ActionSegment> actions) throws Exception {
+        File scriptDir = ctx.scriptDir;
         File logFile = new File(scriptDir, "conversion.log");
-        try (BufferedWriter out = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(logFile), StandardCharsets.UTF_8))) {
+        try (Writer out = ctx.output.open(logFile)) {
 
             out.write("ThreadGroup: " + tgName + "\n");
             out.write("Script folder: " + scriptDir.getAbsolutePath() + "\n\n");
@@ -686,33 +1868,97 @@ public class ConverterCore {
                 for (CsvParameterSet set : csvParams) {
                     out.write("  CSV: " + set.fileName + "  DAT: " + set.datFileName
                             + "  Vars: " + set.variableNames + "\n");
+                    out.write("    SelectNextRow=" + set.selectNextRow + ", UpdateValueOn=" + set.updateValueOn
+                            + ", WhenOutOfRange=" + set.whenOutOfRange + "  (from " + set.jmeterModes + ")\n");
+                    if (set.note != null) {
+                        out.write("    NOTE: " + set.note + "\n");
+                    }
+                }
+            }
+            out.write("\nCorrelation dataflow:\n");
+            if (ctx.prunedCorrelations.isEmpty()) {
+                out.write("  Unused registrations: (none)\n");
+            } else {
+                out.write("  Unused registrations commented out: " + ctx.prunedCorrelations + "\n");
+            }
+            String fragmentStats = ctx.fragments.stats();
+            if (fragmentStats != null) {
+                out.write("\nIncluded fragments (whole conversion): " + fragmentStats + "\n");
+            }
+            StringBuilder weighted = new StringBuilder();
+            for (ActionSegment action : actions) {
+                if (action.block == null) continue;
+                weighted.append("  ").append(action.block).append(" (random): ").append(action.name)
+                        .append(" ").append(action.percent).append("%  <- '").append(action.label).append("'\n");
+            }
+            if (weighted.length() > 0) {
+                out.write("\nWeighted run logic (default.cfg):\n");
+                out.write(weighted.toString());
+            }
+            if (!ctx.assertions.isEmpty()) {
+                out.write("\nAssertions:\n");
+                for (String assertion : ctx.assertions) {
+                    out.write("  " + assertion + "\n");
+                }
+                if (!ctx.slaThresholds.isEmpty()) {
+                    out.write("  Transaction SLAs written to sla.cfg: " + ctx.slaThresholds.size() + "\n");
+                }
+            }
+            if (!ctx.userVariables.isEmpty()) {
+                out.write("\nUser Defined Variables saved in vuser_init: " + ctx.userVariables + "\n");
+            }
+            if (!ctx.unsupported.isEmpty()) {
+                out.write("\nElements not converted: " + ctx.unsupported + "\n");
+            }
+            out.write("\nCache & cookies:\n");
+            out.write("  default.cfg [WEB]: " + (ctx.webSettings.isEmpty() ? "(LR defaults)" : ctx.webSettings) + "\n");
+            out.write("  Start of each iteration: " + (ctx.iterationCode.isEmpty() ? "(nothing)" : String.join(" ", ctx.iterationCode)) + "\n");
+            if (!ctx.foldedSequences.isEmpty()) {
+                out.write("\nRepeated requests folded into loops:\n");
+                for (String folded : ctx.foldedSequences) {
+                    out.write("  " + folded + "\n");
+                }
+            }
+            if (!ctx.notes.isEmpty()) {
+                out.write("\nWarnings:\n");
+                for (String note : ctx.notes) {
+                    out.write("  - " + note + "\n");
                 }
             }
             out.write("\nNotes:\n");
-            out.write("  - Correlations (Regex, JSON) have been converted to web_reg_save_param_ex/web_reg_save_param_json.\n");
+            out.write("  - Correlations (Regex, Boundary, JSON, XPath, CSS) have been converted to web_reg_save_param_ex/_regexp/_json/_xpath.\n");
             out.write("  - Parameters reference .dat files in default.cfg and parameters.prm.\n");
             out.write("  - Please open this script in VuGen, check parameters & correlations.\n");
             out.write("  - Plugin by SreeBommakanti.\n");
         }
     }
 
-    private static void log(File scriptDir, String message) {
+    static void log(ThreadGroupContext ctx, String message) {
+        info(ctx.options, message);
+        ctx.notes.add(message);
+    }
+
+    /** Progress message: printed and passed to the options' log listener, not kept in conversion.log. */
+    static void info(ConverterOptions options, String message) {
         System.out.println("[JMX->LR] " + message);
+        if (options.getLogListener() != null) {
+            options.getLogListener().accept(message);
+        }
     }
 
-    private static String sanitizeName(String name) {
+    static String sanitizeName(String name) {
         if (name == null) return "";
         return name.replaceAll("[^A-Za-z0-9_\\-]", "_");
     }
 
-    private static String escapeForC(String s) {
+    static String escapeForC(String s) {
         if (s == null) return "";
         return s.replace("\\", "\\\\")
                 .replace("\"", "\\\"");
     }
 
     /** Convert JMeter-style ${var} to LoadRunner-style {var} */
-    private static String convertJmeterVarsToLoadRunner(String input) {
+    static String convertJmeterVarsToLoadRunner(String input) {
         if (input == null) {
             return "";
         }
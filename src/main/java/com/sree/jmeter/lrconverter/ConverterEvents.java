@@ -0,0 +1,103 @@
+package com.sree.jmeter.lrconverter;
+
+/**
+ * JFR events for the converter's work, so that running JMeter with Flight Recorder
+ * (-XX:StartFlightRecording) shows conversion phases next to GC and I/O events.
+ *
+ * Callers follow the usual JFR pattern: begin(), do the work, and fill in fields only
+ * when shouldCommit() is true. With recording off, shouldCommit() is false and the
+ * events cost nothing beyond a short-lived allocation.
+ *
+ * The classes here do not reference jdk.jfr: Java 8 runtimes before 8u262 have no JFR
+ * API, so the actual events (JfrEvents) are only loaded after a one-time check and the
+ * events are no-ops without it.
+ */
+final class ConverterEvents {
+
+    private static final boolean JFR_AVAILABLE = isJfrAvailable();
+
+    private ConverterEvents() {
+    }
+
+    /** The JFR event behind a converter event. */
+    interface Sink {
+        void begin();
+
+        boolean shouldCommit();
+
+        void commit(TimedEvent data);
+    }
+
+    abstract static class TimedEvent {
+        private final Sink sink;
+
+        TimedEvent(Sink sink) {
+            this.sink = sink;
+        }
+
+        void begin() {
+            if (sink != null) sink.begin();
+        }
+
+        boolean shouldCommit() {
+            return sink != null && sink.shouldCommit();
+        }
+
+        void commit() {
+            if (sink != null) sink.commit(this);
+        }
+    }
+
+    /** Conversion of one ThreadGroup into a LoadRunner script folder. */
+    static final class ThreadGroupEvent extends TimedEvent {
+        String threadGroup;
+        String scriptDir;
+        int samplers;
+        int actions;
+
+        ThreadGroupEvent() {
+            super(JFR_AVAILABLE ? JfrEvents.threadGroup() : null);
+        }
+    }
+
+    /** Generation of C code for one action (a batch of samplers). */
+    static final class SamplerBatchEvent extends TimedEvent {
+        String action;
+        int samplers;
+        long characters;
+
+        SamplerBatchEvent() {
+            super(JFR_AVAILABLE ? JfrEvents.samplerBatch() : null);
+        }
+    }
+
+    /** Copy of a CSV Data Set file into the script folder. */
+    static final class CsvCopyEvent extends TimedEvent {
+        String source;
+        String destination;
+        long bytes;
+
+        CsvCopyEvent() {
+            super(JFR_AVAILABLE ? JfrEvents.csvCopy() : null);
+        }
+    }
+
+    /** Writing and flushing one generated script file. */
+    static final class FileFlushEvent extends TimedEvent {
+        String file;
+        long bytes;
+
+        FileFlushEvent() {
+            super(JFR_AVAILABLE ? JfrEvents.fileFlush() : null);
+        }
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.sree.jmeter.lrconverter;
 
+import java.util.function.Consumer;
+
 /**
  * Options to control which features are applied during conversion.
  */
@@ -8,6 +10,12 @@ public class ConverterOptions {
     private boolean enableHeaders = true;
     private boolean enableCorrelation = true;
     private boolean enableThinkTime = true;
+    private boolean pruneUnusedCorrelations = false;
+    private boolean splitActionsByTransaction = false;
+    private int maxSamplersPerAction = 0;
+    private int foldRepeatedRequests = 0;
+    private boolean dryRun = false;
+    private Consumer<String> logListener;
 
     public ConverterOptions() {
     }
@@ -35,4 +43,67 @@ public class ConverterOptions {
     public void setEnableThinkTime(boolean enableThinkTime) {
         this.enableThinkTime = enableThinkTime;
     }
+
+    public boolean isPruneUnusedCorrelations() {
+        return pruneUnusedCorrelations;
+    }
+
+    public void setPruneUnusedCorrelations(boolean pruneUnusedCorrelations) {
+        this.pruneUnusedCorrelations = pruneUnusedCorrelations;
+    }
+
+    public boolean isSplitActionsByTransaction() {
+        return splitActionsByTransaction;
+    }
+
+    /** Emit each top-level TransactionController into its own Action file. */
+    public void setSplitActionsByTransaction(boolean splitActionsByTransaction) {
+        this.splitActionsByTransaction = splitActionsByTransaction;
+    }
+
+    public int getMaxSamplersPerAction() {
+        return maxSamplersPerAction;
+    }
+
+    /** Start a new Action file once this many samplers have been emitted (0 = no limit). */
+    public void setMaxSamplersPerAction(int maxSamplersPerAction) {
+        this.maxSamplersPerAction = maxSamplersPerAction;
+    }
+
+    public int getFoldRepeatedRequests() {
+        return foldRepeatedRequests;
+    }
+
+    /**
+     * Fold this many or more consecutive identical or counter-varying requests
+     * (page=1, page=2, ...) into a for loop in Action.c (0 = never fold).
+     */
+    public void setFoldRepeatedRequests(int foldRepeatedRequests) {
+        this.foldRepeatedRequests = foldRepeatedRequests;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    /**
+     * Analyse the plan without writing anything: each ThreadGroup is converted into a
+     * counting sink and an estimate (samplers, Action size, CSV bytes, correlation scans,
+     * unsupported elements) is reported through the log instead.
+     */
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public Consumer<String> getLogListener() {
+        return logListener;
+    }
+
+    /**
+     * Receives every conversion message (progress and warnings) as it is produced.
+     * Called on the converting thread.
+     */
+    public void setLogListener(Consumer<String> logListener) {
+        this.logListener = logListener;
+    }
 }
@@ -0,0 +1,267 @@
+package com.sree.jmeter.lrconverter;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Whole-ThreadGroup dataflow analysis for correlation parameters.
+ *
+ * Walks the ThreadGroup hashTree in execution order and records where each
+ * parameter is defined (by an extractor) and where it is used (${name} in any
+ * property, also nested in function calls). A ForEach controller uses its input
+ * variable (name_1, name_2, ...) and defines its output variable. Names that only appear inside function
+ * arguments (vars.get("name"), __V(name)) or in JSR223/BeanShell scripts cannot be
+ * resolved statically and count as used, so they are never pruned. The result is used to:
+ *  - drop registrations whose parameter is never referenced afterwards
+ *    (each registration makes LR scan every matching response at runtime);
+ *  - report parameters that are used before they are defined, or never defined.
+ */
+class CorrelationAnalysis {
+
+    /** ${name}; nested references inside ${__function(...)} arguments match on their own. */
+    private static final Pattern VAR_REF = Pattern.compile("\\$\\{([^${}()]+)}");
+    private static final Pattern WORD = Pattern.compile("[A-Za-z_][A-Za-z0-9_.-]*");
+
+    private final Set<String> predefined;
+    private final FragmentResolver fragments;
+    private final Map<String, String> definedBy = new LinkedHashMap<>();
+    private final Set<String> defined = new HashSet<>();
+    private final Set<String> usedNames = new HashSet<>();
+    /** Words from function arguments and scripts: possible uses that are not reported. */
+    private final Set<String> possibleUses = new HashSet<>();
+    private final List<String> problems = new ArrayList<>();
+    private final Map<String, String> earlyUses = new LinkedHashMap<>();
+
+    private CorrelationAnalysis(Collection<String> predefined, FragmentResolver fragments) {
+        this.predefined = new HashSet<>(predefined);
+        this.fragments = fragments;
+    }
+
+    /**
+     * @param tgTree     hashTree following the ThreadGroup element (may be null)
+     * @param predefined names defined outside of extractors (CSV columns, user defined variables)
+     * @param fragments  resolves Include/Module controllers, so their contents count too
+     */
+    static CorrelationAnalysis analyze(Element tgTree, Collection<String> predefined, FragmentResolver fragments) {
+        CorrelationAnalysis analysis = new CorrelationAnalysis(predefined, fragments);
+        if (tgTree != null) {
+            fragments.setAnalyzing(true);
+            try {
+                analysis.walk(tgTree);
+            } finally {
+                fragments.setAnalyzing(false);
+            }
+        }
+        analysis.finish();
+        return analysis;
+    }
+
+    /**
+     * True if the parameter produced by an extractor is referenced anywhere in the
+     * ThreadGroup. JMeter derived names (name_g1, name_1, name_matchNr, ...) count as uses.
+     */
+    boolean isUsed(String paramName) {
+        if (paramName == null) return false;
+        String name = paramName.trim();
+        if (usedNames.contains(name) || possibleUses.contains(name)) return true;
+        for (String used : usedNames) {
+            if (used.startsWith(name + "_")) return true;
+        }
+        for (String used : possibleUses) {
+            if (used.startsWith(name + "_")) return true;
+        }
+        return false;
+    }
+
+    /** Human readable findings for conversion.log (undefined / used-before-defined). */
+    List<String> getProblems() {
+        return problems;
+    }
+
+    // ==== Traversal ====
+
+    /**
+     * Non-extractor children are visited first so that a sampler's own properties and
+     * its config children (headers, etc.) count as uses before its extractors define anything.
+     */
+    private void walk(Element hashTree) {
+        List<Element> extractors = new ArrayList<>();
+        List<Element> assertions = new ArrayList<>();
+
+        Node node = hashTree.getFirstChild();
+        while (node != null) {
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                Element el = (Element) node;
+                String tag = el.getTagName();
+                if ("hashTree".equals(tag)) {
+                    walk(el);
+                } else if (CorrelationConverter.isExtractor(tag)) {
+                    extractors.add(el);
+                } else if (AssertionConverter.isAssertion(tag)) {
+                    assertions.add(el);
+                } else if ("IncludeController".equals(tag)) {
+                    Element included = fragments.enterInclude(el);
+                    if (included != null) {
+                        walk(included);
+                        fragments.exit();
+                    }
+                } else if ("ModuleController".equals(tag)) {
+                    Element target = fragments.enterModule(el);
+                    if (target != null) {
+                        collectUses(target, target.getAttribute("testname"), false);
+                        Element targetTree = ConverterCore.findFollowingHashTree(target);
+                        if (targetTree != null) walk(targetTree);
+                        fragments.exit();
+                    }
+                } else {
+                    if ("ForeachController".equals(tag)) {
+                        foreach(el);
+                    } else if (tag.startsWith("JSR223") || tag.startsWith("BeanShell")) {
+                        // scripts can read any variable (vars.get(name), string concatenation, ...)
+                        possibleUses(el.getTextContent());
+                    }
+                    collectUses(el, el.getAttribute("testname"), false);
+                }
+            }
+            node = node.getNextSibling();
+        }
+
+        for (Element extractor : extractors) {
+            collectUses(extractor, extractor.getAttribute("testname"), true);
+            for (String name : CorrelationConverter.refNames(extractor)) {
+                define(name, extractor.getAttribute("testname"));
+            }
+        }
+        // assertions run after the post-processors, so they may check extracted values
+        for (Element assertion : assertions) {
+            collectUses(assertion, assertion.getAttribute("testname"), false);
+        }
+    }
+
+    private void collectUses(Element el, String owner, boolean skipRefNames) {
+        Node child = el.getFirstChild();
+        while (child != null) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                Element c = (Element) child;
+                if (!skipRefNames || !CorrelationConverter.isRefNameProperty(c.getAttribute("name"))) {
+                    collectUses(c, owner, false);
+                }
+            } else if (child.getNodeType() == Node.TEXT_NODE) {
+                use(child.getNodeValue(), owner);
+            }
+            child = child.getNextSibling();
+        }
+    }
+
+    /** inputVal and returnVal are bare names, not ${...} references. */
+    private void foreach(Element controller) {
+        String owner = controller.getAttribute("testname");
+        String input = ConverterCore.getStringProp(controller, "ForeachController.inputVal");
+        if (input != null && !input.trim().isEmpty()) {
+            String name = input.trim();
+            usedNames.add(name);
+            if (!isDefinedName(name) && !isPredefinedPrefix(name) && !earlyUses.containsKey(name)) {
+                earlyUses.put(name, owner);
+            }
+        }
+        String output = ConverterCore.getStringProp(controller, "ForeachController.returnVal");
+        if (output != null) {
+            define(output.trim(), owner);
+        }
+    }
+
+    /** Inputs of a ForEach may be plain variables name_1, name_2, ... */
+    private boolean isPredefinedPrefix(String name) {
+        for (String def : predefined) {
+            if (def.startsWith(name + "_")) return true;
+        }
+        return false;
+    }
+
+    private void use(String text, String owner) {
+        if (text == null || text.indexOf("${") < 0) return;
+        Matcher m = VAR_REF.matcher(text);
+        while (m.find()) {
+            String name = m.group(1).trim();
+            if (name.isEmpty() || name.startsWith("__")) continue; // JMeter functions without arguments
+            usedNames.add(name);
+            if (!isDefinedName(name) && !earlyUses.containsKey(name)) {
+                earlyUses.put(name, owner);
+            }
+        }
+        // function arguments may name variables without ${}: __V(name), vars.get("name") in __groovy ...
+        for (int start = text.indexOf("${__"); start >= 0; start = text.indexOf("${__", start + 1)) {
+            possibleUses(functionCall(text, start));
+        }
+    }
+
+    /** The text of the function call starting at start, up to its matching '}'. */
+    private static String functionCall(String text, int start) {
+        int depth = 0;
+        for (int i = start + 1; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return text.substring(start, i + 1);
+            }
+        }
+        return text.substring(start);
+    }
+
+    private void possibleUses(String text) {
+        if (text == null) return;
+        Matcher m = WORD.matcher(text);
+        while (m.find()) {
+            possibleUses.add(m.group());
+        }
+    }
+
+    private void define(String name, String owner) {
+        if (name.isEmpty()) return;
+        defined.add(name);
+        if (!definedBy.containsKey(name)) {
+            definedBy.put(name, owner);
+        }
+    }
+
+    private boolean isDefinedName(String name) {
+        if (predefined.contains(name) || defined.contains(name)) return true;
+        for (String def : defined) {
+            if (name.startsWith(def + "_")) return true;
+        }
+        return false;
+    }
+
+    private void finish() {
+        for (Map.Entry<String, String> e : earlyUses.entrySet()) {
+            String name = e.getKey();
+            if (isDefinedName(name)) {
+                problems.add("Parameter {" + name + "} is used in '" + e.getValue()
+                        + "' before it is defined by '" + definerOf(name) + "'.");
+            } else {
+                problems.add("Parameter {" + name + "} is used in '" + e.getValue()
+                        + "' but never defined (no extractor, CSV column or variable).");
+            }
+        }
+    }
+
+    private String definerOf(String name) {
+        for (Map.Entry<String, String> e : definedBy.entrySet()) {
+            if (name.equals(e.getKey()) || name.startsWith(e.getKey() + "_")) {
+                return e.getValue();
+            }
+        }
+        return "?";
+    }
+}
@@ -0,0 +1,404 @@
+package com.sree.jmeter.lrconverter;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Converts JMeter post-processor extractors (children of a sampler) into LoadRunner
+ * correlation registrations, choosing the cheapest LR equivalent:
+ *  - RegexExtractor    -> web_reg_save_param_ex LB/RB when literal(.+?)literal,
+ *                         web_reg_save_param_regexp otherwise.
+ *  - BoundaryExtractor -> web_reg_save_param_ex LB/RB.
+ *  - JSONPostProcessor -> web_reg_save_param_json.
+ *  - XPathExtractor / XPath2Extractor -> web_reg_save_param_xpath.
+ *  - HtmlExtractor (CSS/jQuery) -> web_reg_save_param_xpath for simple selectors.
+ *
+ * The JMeter scope (main sample only / sub-samples, headers vs body) is carried over
+ * so that LR does not scan more response data than JMeter did.
+ */
+final class CorrelationConverter {
+
+    /** Extractor tag -> property holding the output variable name(s). */
+    private static final Map<String, String> REFNAME_PROPS = new LinkedHashMap<>();
+
+    static {
+        REFNAME_PROPS.put("RegexExtractor", "RegexExtractor.refname");
+        REFNAME_PROPS.put("BoundaryExtractor", "BoundaryExtractor.refname");
+        REFNAME_PROPS.put("JSONPostProcessor", "JSONPostProcessor.referenceNames");
+        REFNAME_PROPS.put("XPathExtractor", "XPathExtractor.refname");
+        REFNAME_PROPS.put("XPath2Extractor", "XPathExtractor2.refname");
+        REFNAME_PROPS.put("HtmlExtractor", "HtmlExtractor.refname");
+    }
+
+    private static final Pattern CSS_COMPOUND = Pattern.compile(
+            "([A-Za-z][A-Za-z0-9-]*|\\*)?((?:[#.][A-Za-z0-9_-]+|\\[[A-Za-z0-9_-]+(?:=(?:\"[^\"]*\"|'[^']*'|[^\\]]*))?])*)");
+    private static final Pattern CSS_PART = Pattern.compile(
+            "#([A-Za-z0-9_-]+)|\\.([A-Za-z0-9_-]+)|\\[([A-Za-z0-9_-]+)(?:=(\"[^\"]*\"|'[^']*'|[^\\]]*))?]");
+
+    private CorrelationConverter() {
+    }
+
+    static final class Correlation {
+        final String paramName;
+        final String code;
+        /** False for a TODO comment left in place of a registration: LR scans nothing for it. */
+        final boolean registers;
+
+        Correlation(String paramName, String code) {
+            this(paramName, code, true);
+        }
+
+        Correlation(String paramName, String code, boolean registers) {
+            this.paramName = paramName;
+            this.code = code;
+            this.registers = registers;
+        }
+    }
+
+    static boolean isExtractor(String tag) {
+        return REFNAME_PROPS.containsKey(tag);
+    }
+
+    /**
+     * Output variable names of an extractor element (JSONPostProcessor may define several,
+     * separated by ';').
+     */
+    static List<String> refNames(Element extractor) {
+        List<String> names = new ArrayList<>();
+        String tag = extractor.getTagName();
+        String value = ConverterCore.getStringProp(extractor, REFNAME_PROPS.get(tag));
+        if (value == null && "JSONPostProcessor".equals(tag)) {
+            value = ConverterCore.getStringProp(extractor, "JSONPostProcessor.referenceName");
+        }
+        if (value != null) {
+            for (String name : value.split(";")) {
+                if (!name.trim().isEmpty()) names.add(name.trim());
+            }
+        }
+        return names;
+    }
+
+    /** True for the property that names an extractor's output (not a use of a variable). */
+    static boolean isRefNameProperty(String propName) {
+        return REFNAME_PROPS.containsValue(propName) || "JSONPostProcessor.referenceName".equals(propName);
+    }
+
+    /** All correlation registrations for the extractors directly under the sampler, in plan order. */
+    static List<Correlation> convert(Element sampler, ThreadGroupContext ctx) {
+        List<Correlation> result = new ArrayList<>();
+
+        Element samplerTree = ConverterCore.findFollowingHashTree(sampler);
+        if (samplerTree == null) {
+            return result;
+        }
+
+        Node node = samplerTree.getFirstChild();
+        while (node != null) {
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                Element el = (Element) node;
+                switch (el.getTagName()) {
+                    case "RegexExtractor":
+                        addRegex(el, result, ctx);
+                        break;
+                    case "BoundaryExtractor":
+                        addBoundary(el, result, ctx);
+                        break;
+                    case "JSONPostProcessor":
+                        addJson(el, result, ctx);
+                        break;
+                    case "XPathExtractor":
+                        addXPath(el, "XPathExtractor.", result, ctx);
+                        break;
+                    case "XPath2Extractor":
+                        addXPath(el, "XPathExtractor2.", result, ctx);
+                        break;
+                    case "HtmlExtractor":
+                        addHtml(el, result, ctx);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            node = node.getNextSibling();
+        }
+        return result;
+    }
+
+    // ==== Regex & Boundary ====
+
+    /**
+     * Boundary search (LB/RB) is several times cheaper for LR than a regex scan, so
+     * literal(.+?)literal patterns with template $1$ are emitted in that form and
+     * web_reg_save_param_regexp is only used for patterns that cannot be expressed with
+     * boundaries.
+     */
+    private static void addRegex(Element el, List<Correlation> result, ThreadGroupContext ctx) {
+        String paramName = prop(el, "RegexExtractor.refname");
+        String regex = getRaw(el, "RegexExtractor.regex");
+        if (paramName.isEmpty() || regex == null || regex.trim().isEmpty()) {
+            return;
+        }
+        String template = prop(el, "RegexExtractor.template");
+        if (template.isEmpty()) template = "$1$";
+
+        RegexBoundaryAnalyzer.Boundaries boundaries = "$1$".equals(template)
+                ? RegexBoundaryAnalyzer.analyze(regex)
+                : null;
+
+        StringBuilder sb = new StringBuilder();
+        if (boundaries != null) {
+            sb.append("    web_reg_save_param_ex(\n");
+            arg(sb, "ParamName=" + paramName);
+            arg(sb, "LB=" + boundaries.left);
+            arg(sb, "RB=" + boundaries.right);
+        } else {
+            sb.append("    web_reg_save_param_regexp(\n");
+            arg(sb, "ParamName=" + paramName);
+            arg(sb, "RegExp=" + regex);
+            if (!"$1$".equals(template)) {
+                ConverterCore.log(ctx, "WARNING: Regex extractor '" + paramName + "' uses template " + template
+                        + "; LR saves the first group only, please review.");
+            }
+        }
+        arg(sb, "Ordinal=" + toLrOrdinal(prop(el, "RegexExtractor.match_number"), paramName, ctx));
+        searchFilters(sb, el, ctx, paramName, toLrScope(prop(el, "RegexExtractor.useHeaders"), paramName, ctx));
+        sb.append("        LAST);\n\n");
+        result.add(new Correlation(paramName, sb.toString()));
+    }
+
+    private static void addBoundary(Element el, List<Correlation> result, ThreadGroupContext ctx) {
+        String paramName = prop(el, "BoundaryExtractor.refname");
+        String left = getRaw(el, "BoundaryExtractor.lboundary");
+        String right = getRaw(el, "BoundaryExtractor.rboundary");
+        if (paramName.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("    web_reg_save_param_ex(\n");
+        arg(sb, "ParamName=" + paramName);
+        arg(sb, "LB=" + (left != null ? left : ""));
+        arg(sb, "RB=" + (right != null ? right : ""));
+        arg(sb, "Ordinal=" + toLrOrdinal(prop(el, "BoundaryExtractor.match_number"), paramName, ctx));
+        searchFilters(sb, el, ctx, paramName, toLrScope(prop(el, "BoundaryExtractor.useHeaders"), paramName, ctx));
+        sb.append("        LAST);\n\n");
+        result.add(new Correlation(paramName, sb.toString()));
+    }
+
+    // ==== JSON ====
+
+    private static void addJson(Element el, List<Correlation> result, ThreadGroupContext ctx) {
+        List<String> names = refNames(el);
+        String[] exprs = split(firstNonNull(getRaw(el, "JSONPostProcessor.jsonPathExprs"),
+                getRaw(el, "JSONPostProcessor.jsonPathExpr")));
+        String[] matches = split(getRaw(el, "JSONPostProcessor.match_numbers"));
+
+        for (int i = 0; i < names.size() && i < exprs.length; i++) {
+            String paramName = names.get(i);
+            String expr = exprs[i].trim();
+            if (expr.isEmpty()) continue;
+
+            StringBuilder sb = new StringBuilder();
+            sb.append("    web_reg_save_param_json(\n");
+            arg(sb, "ParamName=" + paramName);
+            arg(sb, "QueryString=" + expr);
+            String match = i < matches.length ? matches[i].trim() : "";
+            if ("-1".equals(match)) {
+                arg(sb, "SelectAll=Yes");
+            } else if (!match.isEmpty() && !"1".equals(match)) {
+                ConverterCore.log(ctx, "WARNING: JSON extractor '" + paramName + "' uses match number " + match
+                        + "; LR returns the first match, please review.");
+            }
+            searchFilters(sb, el, ctx, paramName);
+            sb.append("        LAST);\n\n");
+            result.add(new Correlation(paramName, sb.toString()));
+        }
+    }
+
+    // ==== XPath & CSS ====
+
+    private static void addXPath(Element el, String prefix, List<Correlation> result, ThreadGroupContext ctx) {
+        String paramName = prop(el, prefix + "refname");
+        String query = prop(el, prefix + "xpathQuery");
+        if (paramName.isEmpty() || query.isEmpty()) {
+            return;
+        }
+        result.add(new Correlation(paramName,
+                xpathCode(el, paramName, query, prop(el, prefix + "matchNumber"), ctx)));
+    }
+
+    private static void addHtml(Element el, List<Correlation> result, ThreadGroupContext ctx) {
+        String paramName = prop(el, "HtmlExtractor.refname");
+        String expr = prop(el, "HtmlExtractor.expr");
+        if (paramName.isEmpty() || expr.isEmpty()) {
+            return;
+        }
+        String xpath = cssToXPath(expr, prop(el, "HtmlExtractor.attribute"));
+        if (xpath == null) {
+            ConverterCore.log(ctx, "WARNING: CSS selector '" + expr + "' for '" + paramName
+                    + "' has no simple XPath equivalent; correlation left as TODO.");
+            result.add(new Correlation(paramName,
+                    "    // TODO: correlate {" + ConverterCore.escapeForC(paramName) + "} from CSS selector: "
+                            + ConverterCore.escapeForC(expr) + "\n\n", false));
+            return;
+        }
+        result.add(new Correlation(paramName,
+                xpathCode(el, paramName, xpath, prop(el, "HtmlExtractor.match_number"), ctx)));
+    }
+
+    private static String xpathCode(Element el, String paramName, String query, String match, ThreadGroupContext ctx) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("    web_reg_save_param_xpath(\n");
+        arg(sb, "ParamName=" + paramName);
+        arg(sb, "QueryString=" + query);
+        arg(sb, "Ordinal=" + toLrOrdinal(match, paramName, ctx));
+        searchFilters(sb, el, ctx, paramName);
+        sb.append("        LAST);\n\n");
+        return sb.toString();
+    }
+
+    /**
+     * Translates simple CSS selectors (tag, #id, .class, [attr], [attr=value], descendant
+     * and child combinators) into XPath. Returns null for anything else (pseudo-classes, ~, +).
+     */
+    static String cssToXPath(String selector, String attribute) {
+        StringBuilder xpath = new StringBuilder();
+        String[] tokens = selector.trim().replace(">", " > ").split("\\s+");
+        String axis = "//";
+        for (String token : tokens) {
+            if (">".equals(token)) {
+                if (xpath.length() == 0 || "/".equals(axis)) return null;
+                axis = "/";
+                continue;
+            }
+            Matcher m = CSS_COMPOUND.matcher(token);
+            if (!m.matches() || token.isEmpty()) {
+                return null;
+            }
+            String tag = m.group(1) != null ? m.group(1) : "*";
+            xpath.append(axis).append(tag);
+
+            Matcher part = CSS_PART.matcher(m.group(2));
+            while (part.find()) {
+                if (part.group(1) != null) {
+                    xpath.append("[@id='").append(part.group(1)).append("']");
+                } else if (part.group(2) != null) {
+                    xpath.append("[contains(concat(' ',normalize-space(@class),' '),' ")
+                            .append(part.group(2)).append(" ')]");
+                } else if (part.group(4) == null) {
+                    xpath.append("[@").append(part.group(3)).append("]");
+                } else {
+                    String value = part.group(4);
+                    if (value.startsWith("\"") || value.startsWith("'")) {
+                        value = value.substring(1, value.length() - 1);
+                    }
+                    if (value.contains("'")) return null;
+                    xpath.append("[@").append(part.group(3)).append("='").append(value).append("']");
+                }
+            }
+            axis = "//";
+        }
+        if (xpath.length() == 0 || "/".equals(axis)) {
+            return null;
+        }
+        if (attribute != null && !attribute.trim().isEmpty()) {
+            xpath.append("/@").append(attribute.trim());
+        } else {
+            xpath.append("/text()");
+        }
+        return xpath.toString();
+    }
+
+    // ==== Scope mapping ====
+
+    /** JMeter match number: n = nth match, -1 = all, 0 (or empty) = random. */
+    private static String toLrOrdinal(String matchNumber, String paramName, ThreadGroupContext ctx) {
+        String m = matchNumber == null ? "" : matchNumber.trim();
+        if ("-1".equals(m)) {
+            return "ALL";
+        }
+        if (m.isEmpty() || "0".equals(m)) {
+            ConverterCore.log(ctx, "WARNING: Extractor '" + paramName + "' takes a random match in JMeter; LR uses the first match.");
+            return "1";
+        }
+        return m;
+    }
+
+    /**
+     * JMeter "Field to check" -> SEARCH_FILTERS Scope of the _ex/_regexp registrations,
+     * which do not take the Search= argument of web_reg_find.
+     */
+    private static String toLrScope(String useHeaders, String paramName, ThreadGroupContext ctx) {
+        String field = useHeaders == null ? "" : useHeaders.trim();
+        if ("true".equalsIgnoreCase(field)) {
+            return "Headers";
+        }
+        if (field.isEmpty() || "false".equalsIgnoreCase(field)
+                || "unescaped".equalsIgnoreCase(field) || "as_document".equalsIgnoreCase(field)) {
+            return "Body";
+        }
+        ConverterCore.log(ctx, "WARNING: Extractor '" + paramName + "' checks '" + field
+                + "', which LR cannot search directly; searching headers and body.");
+        return "All";
+    }
+
+    /** Search filters for the JSON/XPath registrations, which always look at the body. */
+    private static void searchFilters(StringBuilder sb, Element el, ThreadGroupContext ctx, String paramName) {
+        searchFilters(sb, el, ctx, paramName, "Body");
+    }
+
+    /** Main sample only (JMeter's default) leaves out the sub-samples of followed redirects. */
+    private static void searchFilters(StringBuilder sb, Element el, ThreadGroupContext ctx, String paramName,
+                                      String scope) {
+        sb.append("        SEARCH_FILTERS,\n");
+        arg(sb, "Scope=" + scope);
+        if (isMainSampleOnly(el, paramName, ctx)) {
+            arg(sb, "IgnoreRedirections=Yes");
+        }
+    }
+
+    /** Sample.scope: parent (default) = main sample only, all, children, variable. */
+    private static boolean isMainSampleOnly(Element el, String paramName, ThreadGroupContext ctx) {
+        String scope = prop(el, "Sample.scope");
+        if (scope.isEmpty() || "parent".equals(scope)) {
+            return true;
+        }
+        if ("variable".equals(scope)) {
+            ConverterCore.log(ctx, "WARNING: Extractor '" + paramName + "' reads a JMeter variable ("
+                    + prop(el, "Scope.variable") + "); LR searches the response instead.");
+        }
+        return false;
+    }
+
+    // ==== helpers ====
+
+    private static void arg(StringBuilder sb, String value) {
+        sb.append("        \"")
+          .append(ConverterCore.escapeForC(ConverterCore.convertJmeterVarsToLoadRunner(value)))
+          .append("\",\n");
+    }
+
+    private static String prop(Element el, String name) {
+        String v = ConverterCore.getStringProp(el, name);
+        return v == null ? "" : v.trim();
+    }
+
+    private static String getRaw(Element el, String name) {
+        return ConverterCore.getStringProp(el, name);
+    }
+
+    private static String firstNonNull(String a, String b) {
+        return a != null ? a : b;
+    }
+
+    private static String[] split(String value) {
+        return value == null ? new String[0] : value.split(";");
+    }
+}
@@ -0,0 +1,240 @@
+package com.sree.jmeter.lrconverter;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves IncludeController and ModuleController references for one conversion.
+ *
+ * Included files are parsed once per conversion, however many ThreadGroups reference
+ * them (cache key: canonical path + modification time). Expansion is tracked on a stack
+ * so include and module cycles are reported instead of recursing forever.
+ *
+ * Callers pair every successful enter...() with exit(). Passes that only read the plan
+ * (CorrelationAnalysis) run with setAnalyzing(true) so they do not count as reuses.
+ */
+class FragmentResolver {
+
+    private final Document plan;
+    private final File baseDir;
+    private final Map<String, Document> parsed = new HashMap<>();
+    private final Deque<Object> active = new ArrayDeque<>();
+    private final Set<String> problems = new LinkedHashSet<>();
+    /** Files expanded by the emitting pass; later expansions are reuses. */
+    private final Set<String> expanded = new HashSet<>();
+    private int cacheHits;
+    private boolean analyzing;
+
+    FragmentResolver(Document plan, File jmxFile) {
+        this.plan = plan;
+        this.baseDir = jmxFile.getAbsoluteFile().getParentFile();
+        try {
+            // a fragment that includes the plan itself is a cycle too
+            active.push(jmxFile.getCanonicalPath());
+        } catch (Exception ex) {
+            active.push(jmxFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * @return the hashTree with the included plan's elements (Test Fragments are
+     *         transparent controllers inside it), or null if it cannot be included
+     */
+    Element enterInclude(Element include) {
+        String name = include.getAttribute("testname");
+        String path = ConverterCore.getStringProp(include, "IncludeController.includepath");
+        if (path == null || path.trim().isEmpty()) {
+            problems.add("IncludeController '" + name + "' has no file name.");
+            return null;
+        }
+
+        File file = locate(path.trim(), include);
+        if (file == null) {
+            problems.add("IncludeController '" + name + "': file not found: " + path.trim());
+            return null;
+        }
+
+        String key;
+        Document doc;
+        try {
+            key = file.getCanonicalPath();
+            doc = load(file, key);
+        } catch (Exception ex) {
+            problems.add("IncludeController '" + name + "': cannot parse " + file + ": " + ex.getMessage());
+            return null;
+        }
+        if (!enter(key, "IncludeController '" + name + "'")) {
+            return null;
+        }
+
+        Element testPlan = first(doc, "TestPlan");
+        Element tree = testPlan == null ? null : ConverterCore.findFollowingHashTree(testPlan);
+        if (tree == null) {
+            exit();
+            problems.add("IncludeController '" + name + "': " + file + " contains no test plan.");
+        }
+        return tree;
+    }
+
+    /**
+     * @return the controller referenced by ModuleController.node_path, or null if it
+     *         cannot be found
+     */
+    Element enterModule(Element module) {
+        String name = module.getAttribute("testname");
+        List<String> path = nodePath(module);
+        Element target = findByPath(plan, path);
+        if (target == null && module.getOwnerDocument() != plan) {
+            target = findByPath(module.getOwnerDocument(), path);
+        }
+        if (target == null) {
+            problems.add("ModuleController '" + name + "': target " + path + " not found.");
+            return null;
+        }
+        return enter(target, "ModuleController '" + name + "'") ? target : null;
+    }
+
+    void exit() {
+        active.pop();
+    }
+
+    void setAnalyzing(boolean analyzing) {
+        this.analyzing = analyzing;
+    }
+
+    /** Findings since the last call (missing files, cycles), without duplicates. */
+    List<String> drainProblems() {
+        List<String> result = new ArrayList<>(problems);
+        problems.clear();
+        return result;
+    }
+
+    /** Summary line for conversion.log, or null if no file was included. */
+    String stats() {
+        if (parsed.isEmpty()) return null;
+        return parsed.size() + " file(s) parsed, " + cacheHits + " reuse(s) from cache";
+    }
+
+    // ==== Internals ====
+
+    private boolean enter(Object key, String reference) {
+        if (active.contains(key)) {
+            StringBuilder cycle = new StringBuilder();
+            for (Object k : active) {
+                cycle.insert(0, describe(k) + " -> ");
+            }
+            problems.add(reference + " creates a cycle: " + cycle + describe(key) + "; not expanded again.");
+            return false;
+        }
+        active.push(key);
+        return true;
+    }
+
+    private static String describe(Object key) {
+        return key instanceof Element ? "'" + ((Element) key).getAttribute("testname") + "'" : String.valueOf(key);
+    }
+
+    private Document load(File file, String canonicalPath) throws Exception {
+        String key = canonicalPath + "@" + file.lastModified();
+        Document doc = parsed.get(key);
+        if (doc == null) {
+            doc = ConverterCore.parseXml(file);
+            parsed.put(key, doc);
+        }
+        if (!analyzing && !expanded.add(key)) {
+            cacheHits++;
+        }
+        return doc;
+    }
+
+    /** JMeter resolves relative paths against the test plan folder; nested includes also try their own folder. */
+    private File locate(String path, Element include) {
+        File file = new File(path);
+        if (file.isAbsolute()) {
+            return file.isFile() ? file : null;
+        }
+        file = new File(baseDir, path);
+        if (file.isFile()) {
+            return file;
+        }
+        String uri = include.getOwnerDocument().getDocumentURI();
+        if (uri != null && uri.startsWith("file:")) {
+            File sibling = new File(new File(URI.create(uri)).getParentFile(), path);
+            if (sibling.isFile()) {
+                return sibling;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> nodePath(Element module) {
+        List<String> names = new ArrayList<>();
+        Node child = module.getFirstChild();
+        while (child != null) {
+            if (child.getNodeType() == Node.ELEMENT_NODE
+                    && "ModuleController.node_path".equals(((Element) child).getAttribute("name"))) {
+                Node item = child.getFirstChild();
+                while (item != null) {
+                    if (item.getNodeType() == Node.ELEMENT_NODE) {
+                        names.add(item.getTextContent());
+                    }
+                    item = item.getNextSibling();
+                }
+            }
+            child = child.getNextSibling();
+        }
+        return names;
+    }
+
+    /**
+     * node_path starts with the GUI root ("Test Plan"), then the TestPlan element and the
+     * controllers below it. The root entry is optional so that both layouts resolve.
+     */
+    private static Element findByPath(Document doc, List<String> path) {
+        Element root = first(doc, "hashTree");
+        for (int start = 0; start < Math.min(2, path.size()); start++) {
+            Element current = null;
+            Element tree = root;
+            for (int i = start; i < path.size(); i++) {
+                current = tree == null ? null : childNamed(tree, path.get(i));
+                if (current == null) break;
+                tree = ConverterCore.findFollowingHashTree(current);
+            }
+            if (current != null) {
+                return current;
+            }
+        }
+        return null;
+    }
+
+    private static Element childNamed(Element hashTree, String name) {
+        Node node = hashTree.getFirstChild();
+        while (node != null) {
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                Element el = (Element) node;
+                if (!"hashTree".equals(el.getTagName()) && name.equals(el.getAttribute("testname"))) {
+                    return el;
+                }
+            }
+            node = node.getNextSibling();
+        }
+        return null;
+    }
+
+    private static Element first(Document doc, String tag) {
+        return (Element) doc.getElementsByTagName(tag).item(0);
+    }
+}
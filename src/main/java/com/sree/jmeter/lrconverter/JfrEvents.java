@@ -0,0 +1,135 @@
+package com.sree.jmeter.lrconverter;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JFR events recorded for ConverterEvents. Only loaded when jdk.jfr is present
+ * (see ConverterEvents); nothing else in the converter references this class.
+ */
+final class JfrEvents {
+
+    private static final String CATEGORY_ROOT = "JMeter";
+    private static final String CATEGORY = "LoadRunner Converter";
+
+    private JfrEvents() {
+    }
+
+    static ConverterEvents.Sink threadGroup() {
+        return new ThreadGroupEvent();
+    }
+
+    static ConverterEvents.Sink samplerBatch() {
+        return new SamplerBatchEvent();
+    }
+
+    static ConverterEvents.Sink csvCopy() {
+        return new CsvCopyEvent();
+    }
+
+    static ConverterEvents.Sink fileFlush() {
+        return new FileFlushEvent();
+    }
+
+    @Name("com.sree.jmeter.lrconverter.ThreadGroup")
+    @Label("ThreadGroup Conversion")
+    @Description("Conversion of one ThreadGroup into a LoadRunner script folder")
+    @Category({CATEGORY_ROOT, CATEGORY})
+    static class ThreadGroupEvent extends Event implements ConverterEvents.Sink {
+        @Label("ThreadGroup")
+        String threadGroup;
+
+        @Label("Script Folder")
+        String scriptDir;
+
+        @Label("Samplers")
+        int samplers;
+
+        @Label("Actions")
+        int actions;
+
+        @Override
+        public void commit(ConverterEvents.TimedEvent data) {
+            ConverterEvents.ThreadGroupEvent event = (ConverterEvents.ThreadGroupEvent) data;
+            threadGroup = event.threadGroup;
+            scriptDir = event.scriptDir;
+            samplers = event.samplers;
+            actions = event.actions;
+            commit();
+        }
+    }
+
+    @Name("com.sree.jmeter.lrconverter.SamplerBatch")
+    @Label("Sampler Emission Batch")
+    @Description("Generation of C code for one action (a batch of samplers)")
+    @Category({CATEGORY_ROOT, CATEGORY})
+    static class SamplerBatchEvent extends Event implements ConverterEvents.Sink {
+        @Label("Action")
+        String action;
+
+        @Label("Samplers")
+        int samplers;
+
+        @Label("Generated Characters")
+        long characters;
+
+        @Override
+        public void commit(ConverterEvents.TimedEvent data) {
+            ConverterEvents.SamplerBatchEvent event = (ConverterEvents.SamplerBatchEvent) data;
+            action = event.action;
+            samplers = event.samplers;
+            characters = event.characters;
+            commit();
+        }
+    }
+
+    @Name("com.sree.jmeter.lrconverter.CsvCopy")
+    @Label("CSV Copy")
+    @Description("Copy of a CSV Data Set file into the script folder")
+    @Category({CATEGORY_ROOT, CATEGORY})
+    static class CsvCopyEvent extends Event implements ConverterEvents.Sink {
+        @Label("Source")
+        String source;
+
+        @Label("Destination")
+        String destination;
+
+        @Label("Bytes")
+        @DataAmount(DataAmount.BYTES)
+        long bytes;
+
+        @Override
+        public void commit(ConverterEvents.TimedEvent data) {
+            ConverterEvents.CsvCopyEvent event = (ConverterEvents.CsvCopyEvent) data;
+            source = event.source;
+            destination = event.destination;
+            bytes = event.bytes;
+            commit();
+        }
+    }
+
+    @Name("com.sree.jmeter.lrconverter.FileFlush")
+    @Label("Output File Flush")
+    @Description("Writing and flushing one generated script file")
+    @Category({CATEGORY_ROOT, CATEGORY})
+    static class FileFlushEvent extends Event implements ConverterEvents.Sink {
+        @Label("File")
+        String file;
+
+        @Label("Bytes")
+        @DataAmount(DataAmount.BYTES)
+        long bytes;
+
+        @Override
+        public void commit(ConverterEvents.TimedEvent data) {
+            ConverterEvents.FileFlushEvent event = (ConverterEvents.FileFlushEvent) data;
+            file = event.file;
+            bytes = event.bytes;
+            commit();
+        }
+    }
+}
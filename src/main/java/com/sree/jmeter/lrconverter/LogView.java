@@ -0,0 +1,259 @@
+package com.sree.jmeter.lrconverter;
+
+import javax.swing.BorderFactory;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollBar;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.DefaultCaret;
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Point;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Log panel for the converter window that stays responsive at any log volume.
+ *
+ * append() may be called from any thread; lines are queued and moved to the screen by a
+ * Swing timer at most UPDATES_PER_SECOND times a second. Only the last CAPACITY lines
+ * are kept in memory (ring buffer); the full log goes to a spill file while one is open.
+ * New lines scroll the view only while it is at the end, so older entries stay put
+ * while the user reads them.
+ */
+class LogView extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int CAPACITY = 5000;
+    private static final int UPDATES_PER_SECOND = 5;
+
+    private static final String[] LEVELS = {"All", "Warnings + errors", "Errors"};
+
+    private final String[] ring = new String[CAPACITY];
+    private int head;   // index of the oldest line
+    private int size;
+    private long total;
+    private boolean dirty;
+
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Object spillLock = new Object();
+    private Writer spill;
+    private File spillFile;
+
+    private JTextArea textArea;
+    private JScrollPane scroll;
+    private JComboBox<String> levelBox;
+    private JTextField searchField;
+    private JLabel infoLabel;
+    private final Timer timer;
+
+    LogView() {
+        super(new BorderLayout(4, 4));
+        initComponents();
+        timer = new Timer(1000 / UPDATES_PER_SECOND, e -> refresh());
+        timer.start();
+    }
+
+    private void initComponents() {
+        textArea = new JTextArea();
+        textArea.setEditable(false);
+        textArea.setLineWrap(true);
+        textArea.setWrapStyleWord(true);
+        // refresh() decides whether to follow new lines
+        ((DefaultCaret) textArea.getCaret()).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
+
+        levelBox = new JComboBox<>(LEVELS);
+        levelBox.addActionListener(e -> markDirty());
+
+        searchField = new JTextField(14);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                markDirty();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                markDirty();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                markDirty();
+            }
+        });
+
+        infoLabel = new JLabel(" ");
+
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        filterPanel.add(new JLabel("Show:"));
+        filterPanel.add(levelBox);
+        filterPanel.add(new JLabel("Search:"));
+        filterPanel.add(searchField);
+
+        scroll = new JScrollPane(textArea,
+                JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
+                JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+        scroll.setPreferredSize(new Dimension(400, 200));
+
+        infoLabel.setBorder(BorderFactory.createEmptyBorder(0, 4, 0, 4));
+        add(filterPanel, BorderLayout.NORTH);
+        add(scroll, BorderLayout.CENTER);
+        add(infoLabel, BorderLayout.SOUTH);
+    }
+
+    /** Thread-safe; never touches Swing components directly. */
+    void append(String line) {
+        synchronized (spillLock) {
+            if (spill != null) {
+                try {
+                    spill.write(line);
+                    spill.write("\n");
+                } catch (IOException ex) {
+                    closeSpillQuietly();
+                }
+            }
+        }
+        pending.add(line);
+        // older queued lines would be pushed out of the ring anyway (they are in the spill file)
+        if (pendingCount.incrementAndGet() > CAPACITY && pending.poll() != null) {
+            pendingCount.decrementAndGet();
+            dropped.incrementAndGet();
+        }
+    }
+
+    /** Writes the full log to the given file from now on, replacing any previous spill file. */
+    void startSpill(File file) {
+        synchronized (spillLock) {
+            closeSpillQuietly();
+            try {
+                spill = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+                spillFile = file;
+            } catch (IOException ex) {
+                append("WARNING: Cannot write full log to " + file.getAbsolutePath() + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    void stopSpill() {
+        synchronized (spillLock) {
+            closeSpillQuietly();
+        }
+    }
+
+    /** Must be called on the EDT. */
+    void clear() {
+        pending.clear();
+        pendingCount.set(0);
+        dropped.set(0);
+        head = 0;
+        size = 0;
+        total = 0;
+        markDirty();
+    }
+
+    /** Stops the refresh timer and closes the spill file. */
+    void dispose() {
+        timer.stop();
+        stopSpill();
+    }
+
+    private void closeSpillQuietly() {
+        if (spill != null) {
+            try {
+                spill.close();
+            } catch (IOException ignored) {
+                // the on-screen log is still complete for the last CAPACITY lines
+            }
+            spill = null;
+        }
+    }
+
+    private void markDirty() {
+        dirty = true;
+    }
+
+    // ==== EDT side ====
+
+    private void refresh() {
+        long skipped = dropped.getAndSet(0);
+        if (skipped > 0) {
+            total += skipped;
+            dirty = true;
+        }
+        String line;
+        while ((line = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            if (size < CAPACITY) {
+                ring[(head + size) % CAPACITY] = line;
+                size++;
+            } else {
+                ring[head] = line;
+                head = (head + 1) % CAPACITY;
+            }
+            total++;
+            dirty = true;
+        }
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        int level = levelBox.getSelectedIndex();
+        String search = searchField.getText().trim().toLowerCase(Locale.ROOT);
+        StringBuilder text = new StringBuilder();
+        int shown = 0;
+        for (int i = 0; i < size; i++) {
+            String l = ring[(head + i) % CAPACITY];
+            if (matches(l, level, search)) {
+                text.append(l).append('\n');
+                shown++;
+            }
+        }
+        JScrollBar bar = scroll.getVerticalScrollBar();
+        boolean atEnd = bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum();
+        Point position = scroll.getViewport().getViewPosition();
+        textArea.setText(text.toString());
+        if (atEnd) {
+            textArea.setCaretPosition(textArea.getDocument().getLength());
+        } else {
+            scroll.getViewport().setViewPosition(position);
+        }
+
+        String info = "Showing " + shown + " of the last " + size + " lines (" + total + " total)";
+        File file = spillFile;
+        if (file != null && total > size) {
+            info += "; full log: " + file.getAbsolutePath();
+        }
+        infoLabel.setText(info);
+    }
+
+    private static boolean matches(String line, int level, String search) {
+        if (level > 0) {
+            boolean error = line.contains("ERROR");
+            boolean warning = error || line.contains("WARNING");
+            if (level == 1 && !warning || level == 2 && !error) return false;
+        }
+        return search.isEmpty() || line.toLowerCase(Locale.ROOT).contains(search);
+    }
+}
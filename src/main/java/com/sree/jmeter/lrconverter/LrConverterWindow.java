@@ -7,14 +7,11 @@ import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
-import javax.swing.JScrollPane;
-import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
 import java.awt.BorderLayout;
-import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Frame;
 import java.awt.GridBagConstraints;
@@ -29,14 +26,18 @@ import java.io.File;
  */
 public class LrConverterWindow extends JDialog {
 
+    /** Full conversion log written next to the generated scripts. */
+    private static final String FULL_LOG_FILE = "converter-ui.log";
+
     private JTextField jmxField;
     private JTextField outputField;
     private JButton browseJmxButton;
     private JButton browseOutButton;
     private JButton convertButton;
+    private JButton estimateButton;
     private JButton closeButton;
     private JProgressBar progressBar;
-    private JTextArea logArea;
+    private LogView logView;
     private JLabel statusLabel;
 
     public LrConverterWindow(Frame owner) {
@@ -56,6 +57,8 @@ public class LrConverterWindow extends JDialog {
         browseJmxButton = new JButton("Browse...");
         browseOutButton = new JButton("Browse...");
         convertButton = new JButton("Convert");
+        estimateButton = new JButton("Estimate");
+        estimateButton.setToolTipText("Analyse the plan without writing any output");
         closeButton = new JButton("Close");
 
         progressBar = new JProgressBar();
@@ -64,10 +67,7 @@ public class LrConverterWindow extends JDialog {
         progressBar.setMaximum(100);
         progressBar.setValue(0);
 
-        logArea = new JTextArea();
-        logArea.setEditable(false);
-        logArea.setLineWrap(true);
-        logArea.setWrapStyleWord(true);
+        logView = new LogView();
 
         statusLabel = new JLabel("Idle");
     }
@@ -98,12 +98,6 @@ public class LrConverterWindow extends JDialog {
         gbc.gridx = 2; gbc.gridy = 1; gbc.weightx = 0;
         topPanel.add(browseOutButton, gbc);
 
-        // Log area
-        JScrollPane logScroll = new JScrollPane(logArea,
-                JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
-                JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
-        logScroll.setPreferredSize(new Dimension(400, 200));
-
         // Progress + status
         JPanel progressPanel = new JPanel(new BorderLayout(4, 4));
         progressPanel.add(progressBar, BorderLayout.CENTER);
@@ -115,6 +109,7 @@ public class LrConverterWindow extends JDialog {
         JPanel rightButtons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
 
         leftButtons.add(convertButton);
+        leftButtons.add(estimateButton);
         rightButtons.add(closeButton);
 
         buttonsPanel.add(leftButtons, BorderLayout.WEST);
@@ -128,7 +123,7 @@ public class LrConverterWindow extends JDialog {
         bottomPanel.add(signature, BorderLayout.SOUTH);
 
         content.add(topPanel, BorderLayout.NORTH);
-        content.add(logScroll, BorderLayout.CENTER);
+        content.add(logView, BorderLayout.CENTER);
         content.add(progressPanel, BorderLayout.SOUTH);
         content.add(bottomPanel, BorderLayout.PAGE_END);
 
@@ -139,6 +134,7 @@ public class LrConverterWindow extends JDialog {
         browseJmxButton.addActionListener(this::onBrowseJmx);
         browseOutButton.addActionListener(this::onBrowseOut);
         convertButton.addActionListener(this::onConvert);
+        estimateButton.addActionListener(this::onEstimate);
         closeButton.addActionListener(e -> dispose());
     }
 
@@ -189,26 +185,54 @@ public class LrConverterWindow extends JDialog {
             return;
         }
 
-        runConversion(jmxFile, outDir);
+        runConversion(jmxFile, outDir, false);
+    }
+
+    /** Dry run: reports per ThreadGroup what a conversion would produce; writes nothing. */
+    private void onEstimate(ActionEvent e) {
+        String jmxPath = jmxField.getText().trim();
+        if (jmxPath.isEmpty()) {
+            appendLog("Please select a JMX file.");
+            return;
+        }
+        File jmxFile = new File(jmxPath);
+        if (!jmxFile.exists()) {
+            appendLog("JMX file does not exist: " + jmxFile.getAbsolutePath());
+            return;
+        }
+
+        String outPath = outputField.getText().trim();
+        File outDir = outPath.isEmpty() ? jmxFile.getAbsoluteFile().getParentFile() : new File(outPath);
+        runConversion(jmxFile, outDir, true);
     }
 
-    private void runConversion(File jmxFile, File outDir) {
+    private void runConversion(File jmxFile, File outDir, boolean dryRun) {
+        String verb = dryRun ? "Estimating" : "Converting";
         convertButton.setEnabled(false);
+        estimateButton.setEnabled(false);
         browseJmxButton.setEnabled(false);
         browseOutButton.setEnabled(false);
         progressBar.setIndeterminate(true);
-        progressBar.setString("Converting...");
-        statusLabel.setText("Converting " + jmxFile.getName() + "...");
-        logArea.setText("");
-        appendLog("Starting conversion...");
+        progressBar.setString(verb + "...");
+        statusLabel.setText(verb + " " + jmxFile.getName() + "...");
+        logView.clear();
+        if (!dryRun) {
+            logView.startSpill(new File(outDir, FULL_LOG_FILE));
+        }
+        appendLog(dryRun ? "Starting dry run (nothing is written)..." : "Starting conversion...");
         appendLog("JMX: " + jmxFile.getAbsolutePath());
-        appendLog("Output: " + outDir.getAbsolutePath());
+        if (!dryRun) {
+            appendLog("Output: " + outDir.getAbsolutePath());
+        }
 
         // Simple background thread (no SwingWorker to avoid extra imports)
         Thread t = new Thread(() -> {
             String error = null;
+            ConverterOptions options = new ConverterOptions();
+            options.setLogListener(logView::append);
+            options.setDryRun(dryRun);
             try {
-                ConverterCore.convert(jmxFile, outDir);
+                ConverterCore.convert(jmxFile, outDir, options);
             } catch (Exception ex) {
                 error = ex.getMessage();
                 ex.printStackTrace();
@@ -219,26 +243,35 @@ public class LrConverterWindow extends JDialog {
                 progressBar.setIndeterminate(false);
                 progressBar.setValue(100);
                 convertButton.setEnabled(true);
+                estimateButton.setEnabled(true);
                 browseJmxButton.setEnabled(true);
                 browseOutButton.setEnabled(true);
 
+                String what = dryRun ? "Dry run" : "Conversion";
                 if (errFinal == null) {
                     progressBar.setString("Completed");
-                    statusLabel.setText("Conversion completed successfully.");
-                    appendLog("Conversion completed successfully.");
+                    statusLabel.setText(what + " completed successfully.");
+                    appendLog(what + " completed successfully.");
                 } else {
                     progressBar.setString("Failed");
-                    statusLabel.setText("Conversion failed.");
+                    statusLabel.setText(what + " failed.");
                     appendLog("ERROR: " + errFinal);
                 }
+                logView.stopSpill();
             });
         });
 
         t.start();
     }
 
+    /** Safe from any thread: the log view batches screen updates. */
     private void appendLog(String text) {
-        logArea.append(text + "\n");
-        logArea.setCaretPosition(logArea.getDocument().getLength());
+        logView.append(text);
+    }
+
+    @Override
+    public void dispose() {
+        logView.dispose();
+        super.dispose();
     }
 }
@@ -0,0 +1,129 @@
+package com.sree.jmeter.lrconverter;
+
+import org.w3c.dom.Document;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * LRU cache of parsed JMX plans, keyed by content hash + modification time and bounded
+ * by an approximate memory budget.
+ *
+ * Hashing a file is far cheaper than building its DOM, so back-to-back conversions of
+ * the same plan skip parsing entirely. Cached documents are shared and must be treated
+ * as read-only (ConverterCore never modifies them).
+ *
+ * Hashing and parsing run outside the lock: concurrent requests for the same key wait on
+ * one parse (a FutureTask per key), requests for other plans are not held up.
+ */
+class PlanCache {
+
+    /** A DOM typically takes several times the size of the XML text it was parsed from. */
+    private static final int DOM_BYTES_PER_FILE_BYTE = 8;
+
+    private final long budgetBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentHashMap<String, FutureTask<Document>> parsing = new ConcurrentHashMap<>();
+    private long usedBytes;
+    private long hits;
+    private long misses;
+
+    private static class Entry {
+        final Document document;
+        final long estimatedBytes;
+
+        Entry(Document document, long estimatedBytes) {
+            this.document = document;
+            this.estimatedBytes = estimatedBytes;
+        }
+    }
+
+    PlanCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /** Returns the parsed plan, parsing and caching it if the content or mtime changed. */
+    Document get(File jmxFile) throws Exception {
+        String key = hash(jmxFile) + "@" + jmxFile.lastModified();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return entry.document;
+            }
+        }
+
+        FutureTask<Document> parse = parsing.computeIfAbsent(key,
+                k -> new FutureTask<>(() -> ConverterCore.parseXml(jmxFile)));
+        parse.run(); // no-op if another request is already parsing this key
+        Document document;
+        try {
+            document = parse.get();
+        } catch (ExecutionException ex) {
+            parsing.remove(key, parse);
+            Throwable cause = ex.getCause();
+            throw cause instanceof Exception ? (Exception) cause : ex;
+        }
+
+        synchronized (this) {
+            // the first request to finish stores the plan, the others waited on its parse
+            if (!parsing.remove(key, parse)) {
+                hits++;
+                return document;
+            }
+            misses++;
+            long estimate = jmxFile.length() * DOM_BYTES_PER_FILE_BYTE;
+            if (estimate <= budgetBytes) {
+                entries.put(key, new Entry(document, estimate));
+                usedBytes += estimate;
+                evict();
+            }
+        }
+        return document;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    synchronized String stats() {
+        return "entries=" + entries.size()
+                + " usedBytes~" + usedBytes
+                + " budgetBytes=" + budgetBytes
+                + " hits=" + hits
+                + " misses=" + misses;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            usedBytes -= it.next().getValue().estimatedBytes;
+            it.remove();
+        }
+    }
+
+    private static String hash(File file) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = new FileInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
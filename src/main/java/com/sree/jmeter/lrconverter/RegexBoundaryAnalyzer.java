@@ -0,0 +1,144 @@
+package com.sree.jmeter.lrconverter;
+
+/**
+ * Recognizes JMeter regular expressions that can be expressed as LoadRunner
+ * left/right boundaries, e.g. {@code "token":"(.+?)"} -> LB={@code "token":"}, RB={@code "}.
+ *
+ * Boundary search is much cheaper for LR than a regex scan, so
+ * web_reg_save_param_ex(LB=..., RB=...) is preferred whenever the pattern is
+ * literal text around a single lazy capture group.
+ *
+ * Accepted shape: literal ( .+? | .*? | [^c]+ | [^c]* ) literal
+ * where the negated class form requires the right boundary to be exactly c: with a
+ * longer RB, LR would return text containing c that the regex does not match.
+ * Anything else (alternation, quantifiers on literals, \d, flags, several groups)
+ * is not expressible and the caller falls back to RegExp.
+ */
+final class RegexBoundaryAnalyzer {
+
+    private static final String META = "\\.[]{}()*+?^$|";
+
+    private RegexBoundaryAnalyzer() {
+    }
+
+    static final class Boundaries {
+        final String left;
+        final String right;
+
+        Boundaries(String left, String right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    /**
+     * @return the boundaries, or null if the regex is not a literal(.+?)literal pattern
+     */
+    static Boundaries analyze(String regex) {
+        if (regex == null || regex.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder left = new StringBuilder();
+        int pos = readLiteral(regex, 0, left);
+        if (pos < 0 || pos >= regex.length() || regex.charAt(pos) != '(') {
+            return null;
+        }
+
+        // skip a character class first so that [^)]+ does not close the group early
+        int searchFrom = pos;
+        if (regex.startsWith("[^", pos + 1)) {
+            int classStart = pos + 3;
+            if (classStart < regex.length() && regex.charAt(classStart) == '\\') classStart++;
+            searchFrom = regex.indexOf(']', classStart + 1);
+            if (searchFrom < 0) return null;
+        }
+        int groupEnd = regex.indexOf(')', searchFrom);
+        if (groupEnd < 0) {
+            return null;
+        }
+        String group = regex.substring(pos + 1, groupEnd);
+        Character stopChar = null;
+        if (!".+?".equals(group) && !".*?".equals(group)) {
+            stopChar = negatedClassChar(group);
+            if (stopChar == null) {
+                return null;
+            }
+        }
+
+        StringBuilder right = new StringBuilder();
+        int end = readLiteral(regex, groupEnd + 1, right);
+        if (end != regex.length()) {
+            return null;
+        }
+
+        if (left.length() == 0 || right.length() == 0) {
+            return null;
+        }
+        if (stopChar != null && (right.length() != 1 || right.charAt(0) != stopChar)) {
+            return null;
+        }
+        return new Boundaries(left.toString(), right.toString());
+    }
+
+    /**
+     * @return the text a regex matches if it is plain (escaped) literal text, e.g.
+     *         {@code Order\.Id} -> {@code Order.Id}; null if it uses regex features
+     */
+    static String literal(String regex) {
+        if (regex == null || regex.isEmpty()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        return readLiteral(regex, 0, sb) == regex.length() ? sb.toString() : null;
+    }
+
+    /**
+     * Reads literal characters starting at pos into sb.
+     *
+     * @return index of the first non-literal character, or -1 on an escape that is not a literal
+     */
+    private static int readLiteral(String regex, int pos, StringBuilder sb) {
+        int i = pos;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '$' && regex.startsWith("${", i)) {
+                // JMeter variable, substituted before the regex is compiled
+                int close = regex.indexOf('}', i);
+                if (close < 0) return -1;
+                sb.append(regex, i, close + 1);
+                i = close + 1;
+            } else if (c == '\\') {
+                if (i + 1 >= regex.length()) return -1;
+                char next = regex.charAt(i + 1);
+                if (Character.isLetterOrDigit(next)) {
+                    // \d, \s, \w, \n, back references ... are not literal text
+                    return -1;
+                }
+                sb.append(next);
+                i += 2;
+            } else if (META.indexOf(c) >= 0) {
+                return i;
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+        return i;
+    }
+
+    /** Returns c for "[^c]+" / "[^c]*" (c literal or escaped), null otherwise. */
+    private static Character negatedClassChar(String group) {
+        if (!group.startsWith("[^") || !(group.endsWith("]+") || group.endsWith("]*"))) {
+            return null;
+        }
+        String body = group.substring(2, group.length() - 2);
+        if (body.length() == 1 && body.charAt(0) != '\\' && body.charAt(0) != ']') {
+            return body.charAt(0);
+        }
+        if (body.length() == 2 && body.charAt(0) == '\\' && !Character.isLetterOrDigit(body.charAt(1))) {
+            return body.charAt(1);
+        }
+        return null;
+    }
+}
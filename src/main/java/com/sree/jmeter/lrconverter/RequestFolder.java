@@ -0,0 +1,291 @@
+package com.sree.jmeter.lrconverter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Folds runs of consecutive sampler blocks into C for loops.
+ *
+ * Each block is the generated code of one sampler. Blocks are compared with their digit
+ * runs masked out; a run of blocks with the same shape, where every number is either
+ * constant or advances by a constant step (page=1, page=2, ...), becomes
+ *
+ *   for (fold_N = 0; fold_N < count; fold_N++) {
+ *       lr_param_sprintf("fold_N_1", "%d", 1 + fold_N);
+ *       ... first block with the counter replaced by {fold_N_1} ...
+ *   }
+ *
+ * Varying numbers must sit inside string literals. In web_* argument lines LoadRunner
+ * substitutes {param} only in some attributes (URL=, Body=, Value=, ...); a counter in
+ * any other attribute, such as a correlation's ParamName=, prevents folding. Literals
+ * outside argument lists (step and transaction names) are wrapped in lr_eval_string().
+ */
+final class RequestFolder {
+
+    /** Numbers longer than this are only folded when they are constant (int range). */
+    private static final int MAX_COUNTER_DIGITS = 9;
+
+    /** web_* attributes whose values LoadRunner evaluates ({param} substitution). */
+    private static final String[] EVALUATED_ATTRIBUTES = {
+            "\"URL=", "\"Referer=", "\"Body=", "\"Action=", "\"Name=", "\"Value=", "\"Text="
+    };
+
+    private RequestFolder() {
+    }
+
+    /** One digit run in a block. */
+    private static final class Number {
+        final String text;
+        final boolean inString;
+
+        Number(String text, boolean inString) {
+            this.text = text;
+            this.inString = inString;
+        }
+
+        long value() {
+            return Long.parseLong(text);
+        }
+
+        boolean padded() {
+            return text.length() > 1 && text.charAt(0) == '0';
+        }
+    }
+
+    /** A block split into the text between digit runs and the digit runs themselves. */
+    private static final class Shape {
+        final List<String> literals = new ArrayList<>();
+        final List<Number> numbers = new ArrayList<>();
+
+        boolean sameAs(Shape other) {
+            return literals.equals(other.literals);
+        }
+    }
+
+    /**
+     * Writes the blocks, folding every run of at least minRun similar blocks.
+     */
+    static void write(List<String> blocks, CodeWriter out, int minRun, ThreadGroupContext ctx) throws Exception {
+        List<Shape> shapes = new ArrayList<>();
+        for (String block : blocks) {
+            shapes.add(parse(block));
+        }
+
+        int i = 0;
+        while (i < blocks.size()) {
+            int length = runLength(shapes, i);
+            if (minRun > 1 && length >= minRun && writeLoop(shapes, i, length, out, ctx)) {
+                i += length;
+            } else {
+                out.write(blocks.get(i));
+                i++;
+            }
+        }
+    }
+
+    // ==== Analysis ====
+
+    private static Shape parse(String block) {
+        Shape shape = new Shape();
+        StringBuilder literal = new StringBuilder();
+        boolean inString = false;
+
+        int i = 0;
+        while (i < block.length()) {
+            char ch = block.charAt(i);
+            if (Character.isDigit(ch)) {
+                int end = i;
+                while (end < block.length() && Character.isDigit(block.charAt(end))) end++;
+                shape.literals.add(literal.toString());
+                shape.numbers.add(new Number(block.substring(i, end), inString));
+                literal.setLength(0);
+                i = end;
+                continue;
+            }
+
+            literal.append(ch);
+            if (inString && ch == '\\' && i + 1 < block.length()) {
+                literal.append(block.charAt(++i));
+            } else if (ch == '"') {
+                inString = !inString;
+            } else if (ch == '\n') {
+                inString = false;
+            }
+            i++;
+        }
+        shape.literals.add(literal.toString());
+        return shape;
+    }
+
+    /** Length of the run of blocks starting at start whose numbers are constant or arithmetic. */
+    private static int runLength(List<Shape> shapes, int start) {
+        Shape first = shapes.get(start);
+        int end = start + 1;
+        while (end < shapes.size() && shapes.get(end).sameAs(first) && fits(shapes, start, end)) {
+            end++;
+        }
+        return end - start;
+    }
+
+    private static boolean fits(List<Shape> shapes, int start, int index) {
+        Shape first = shapes.get(start);
+        Shape current = shapes.get(index);
+        for (int p = 0; p < first.numbers.size(); p++) {
+            Number a = first.numbers.get(p);
+            Number b = current.numbers.get(p);
+            if (a.text.equals(b.text) && (index == start + 1 || step(shapes, start, p) == 0)) {
+                continue;
+            }
+            if (!a.inString || a.text.length() > MAX_COUNTER_DIGITS || b.text.length() > MAX_COUNTER_DIGITS) {
+                return false;
+            }
+            if ((a.padded() || b.padded()) && a.text.length() != b.text.length()) {
+                return false;
+            }
+            if (index > start + 1 && b.value() != a.value() + step(shapes, start, p) * (index - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long step(List<Shape> shapes, int start, int p) {
+        Number a = shapes.get(start).numbers.get(p);
+        Number b = shapes.get(start + 1).numbers.get(p);
+        if (a.text.length() > MAX_COUNTER_DIGITS || b.text.length() > MAX_COUNTER_DIGITS) {
+            return 0;
+        }
+        return b.value() - a.value();
+    }
+
+    // ==== Emission ====
+
+    private static boolean writeLoop(List<Shape> shapes, int start, int count,
+                                     CodeWriter out, ThreadGroupContext ctx) throws Exception {
+        Shape first = shapes.get(start);
+        int id = ctx.nextBlockId();
+        String var = "fold_" + id;
+
+        // one counter parameter per distinct (start, step, width) sequence
+        List<String> sequences = new ArrayList<>();
+        List<String> sprintfs = new ArrayList<>();
+        StringBuilder body = new StringBuilder();
+        StringBuilder stringLiteral = null;
+        boolean literalHasCounter = false;
+
+        for (int p = 0; p <= first.numbers.size(); p++) {
+            String literal = first.literals.get(p);
+            for (int c = 0; c < literal.length(); c++) {
+                char ch = literal.charAt(c);
+                if (stringLiteral == null) {
+                    if (ch == '"') {
+                        stringLiteral = new StringBuilder("\"");
+                        literalHasCounter = false;
+                    } else {
+                        body.append(ch);
+                    }
+                    continue;
+                }
+                stringLiteral.append(ch);
+                if (ch == '\\' && c + 1 < literal.length()) {
+                    stringLiteral.append(literal.charAt(++c));
+                } else if (ch == '"' || ch == '\n') {
+                    if (!closeLiteral(body, stringLiteral, literalHasCounter)) return false;
+                    stringLiteral = null;
+                }
+            }
+            if (p == first.numbers.size()) break;
+
+            Number n = first.numbers.get(p);
+            long step = step(shapes, start, p);
+            String text = n.text;
+            if (step != 0) {
+                String format = n.padded() ? "%0" + n.text.length() + "d" : "%d";
+                String key = n.value() + "/" + step + "/" + format;
+                int index = sequences.indexOf(key);
+                if (index < 0) {
+                    sequences.add(key);
+                    index = sequences.size() - 1;
+                    sprintfs.add("    lr_param_sprintf(\"" + var + "_" + (index + 1) + "\", \"" + format + "\", "
+                            + counterExpression(n.value(), step, var) + ");\n");
+                }
+                text = "{" + var + "_" + (index + 1) + "}";
+                literalHasCounter = true;
+            }
+            (stringLiteral != null ? stringLiteral : body).append(text);
+        }
+        if (stringLiteral != null) {
+            return false;
+        }
+
+        out.write("    // " + count + " similar requests folded into a loop\n");
+        ConverterCore.openBlock(out, "for (" + var + " = 0; " + var + " < " + count + "; " + var + "++)",
+                "int " + var + ";");
+        for (String sprintf : sprintfs) {
+            out.write(sprintf);
+        }
+        if (!sprintfs.isEmpty()) {
+            out.write("\n");
+        }
+        out.write(body.toString());
+        ConverterCore.closeBlock(out, true);
+
+        ctx.foldedSequences.add(count + " x " + firstLine(body.toString()));
+        return true;
+    }
+
+    /**
+     * Appends a finished string literal. Literals outside web_* argument lists need
+     * lr_eval_string() for the counter to be substituted; argument lines can only carry
+     * a counter in an evaluated attribute.
+     */
+    private static boolean closeLiteral(StringBuilder body, StringBuilder literal, boolean hasCounter) {
+        int lineStart = body.lastIndexOf("\n") + 1;
+        boolean argument = body.substring(lineStart).trim().isEmpty();
+        if (!hasCounter) {
+            body.append(literal);
+            return true;
+        }
+        if (argument) {
+            if (!isEvaluated(literal)) return false;
+            body.append(literal);
+            return true;
+        }
+        if (count(literal, "{") != count(literal, "{fold_")) {
+            // any other brace would be evaluated as a parameter too
+            return false;
+        }
+        body.append("lr_eval_string(").append(literal).append(")");
+        return true;
+    }
+
+    private static boolean isEvaluated(StringBuilder literal) {
+        for (String attribute : EVALUATED_ATTRIBUTES) {
+            if (literal.indexOf(attribute) == 0) return true;
+        }
+        return false;
+    }
+
+    private static int count(CharSequence text, String token) {
+        int n = 0;
+        for (int i = text.toString().indexOf(token); i >= 0; i = text.toString().indexOf(token, i + 1)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static String counterExpression(long start, long step, String var) {
+        String term = Math.abs(step) == 1 ? var : var + " * " + Math.abs(step);
+        if (start == 0) {
+            return step < 0 ? "-" + term : term;
+        }
+        return start + (step < 0 ? " - " : " + ") + term;
+    }
+
+    private static String firstLine(String code) {
+        for (String line : code.split("\n")) {
+            if (line.contains("web_")) return line.trim();
+        }
+        return code.trim().split("\n")[0].trim();
+    }
+}
@@ -0,0 +1,394 @@
+package com.sree.jmeter.lrconverter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Asynchronous output layer for generated script files.
+ *
+ * Code generation encodes text into large pooled direct buffers; full buffers are handed
+ * to a dedicated writer thread through a bounded queue and written with gathered
+ * FileChannel writes. Conversion therefore never blocks on storage latency (e.g. network
+ * mounted output folders) unless the writer falls behind by the whole buffer pool,
+ * which is the backpressure limit.
+ *
+ * Errors from the writer thread are rethrown on the next write or on close(). After the
+ * first error the writer closes every file it still has open and writes nothing more.
+ *
+ * The counting variant (dry runs) writes nothing and only records how many bytes each
+ * file would have.
+ */
+class ScriptOutput implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_BUFFERS = 16;
+    private static final int CHAR_BATCH = 32 * 1024;
+
+    private final BlockingQueue<ByteBuffer> pool = new ArrayBlockingQueue<>(MAX_BUFFERS);
+    private final BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(MAX_BUFFERS * 2);
+    private final Thread writerThread;
+    private final Map<File, Long> counted;
+    /** Files with an open channel; writer thread only. */
+    private final Set<FileState> openFiles = new LinkedHashSet<>();
+    private int allocated;
+    private volatile Throwable failure;
+
+    /** A buffer to append to a file, a close marker (buffer == null) or shutdown (file == null). */
+    private static final class Chunk {
+        final FileState file;
+        final ByteBuffer buffer;
+
+        Chunk(FileState file, ByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+
+    /** Writer-thread side state of one output file. */
+    private static final class FileState {
+        final File file;
+        FileChannel channel;
+        long bytes;
+        ConverterEvents.FileFlushEvent event;
+
+        FileState(File file) {
+            this.file = file;
+        }
+    }
+
+    ScriptOutput() {
+        counted = null;
+        writerThread = new Thread(this::drain, "jmx-lr-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    private ScriptOutput(Map<File, Long> counted) {
+        this.counted = counted;
+        this.writerThread = null;
+    }
+
+    /** Output that writes nothing; see {@link #size(File)}. */
+    static ScriptOutput counting() {
+        return new ScriptOutput(new HashMap<>());
+    }
+
+    /** Opens a generated file; the returned writer must be closed to complete the file. */
+    Writer open(File f) throws IOException {
+        if (counted != null) {
+            return new CountingWriter(f);
+        }
+        checkFailure();
+        return new QueuedWriter(new FileState(f));
+    }
+
+    /** UTF-8 size of a closed file of a counting output (0 if it was not generated). */
+    long size(File f) {
+        Long bytes = counted == null ? null : counted.get(f);
+        return bytes == null ? 0 : bytes;
+    }
+
+    /** Waits until every queued file has been written and closed. */
+    @Override
+    public void close() throws IOException {
+        if (counted != null) {
+            return;
+        }
+        try {
+            queue.put(new Chunk(null, null));
+            writerThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while flushing script files", ex);
+        }
+        checkFailure();
+    }
+
+    // ==== Converting thread ====
+
+    private ByteBuffer acquire() throws IOException {
+        checkFailure();
+        ByteBuffer buffer = pool.poll();
+        if (buffer == null) {
+            synchronized (this) {
+                if (allocated < MAX_BUFFERS) {
+                    allocated++;
+                    return ByteBuffer.allocateDirect(BUFFER_SIZE);
+                }
+            }
+            try {
+                buffer = pool.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for an output buffer", ex);
+            }
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    private void submit(Chunk chunk) throws IOException {
+        checkFailure();
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while queueing script output", ex);
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        Throwable t = failure;
+        if (t != null) {
+            throw t instanceof IOException ? (IOException) t : new IOException(t);
+        }
+    }
+
+    /** Encodes UTF-8 straight into pooled buffers. */
+    private final class QueuedWriter extends Writer {
+        private final FileState file;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final CharBuffer chars = CharBuffer.allocate(CHAR_BATCH);
+        private ByteBuffer bytes;
+        private boolean closed;
+
+        QueuedWriter(FileState file) {
+            this.file = file;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            while (len > 0) {
+                int n = Math.min(len, chars.remaining());
+                chars.put(cbuf, off, n);
+                off += n;
+                len -= n;
+                if (!chars.hasRemaining()) encode(false);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            while (len > 0) {
+                int n = Math.min(len, chars.remaining());
+                chars.put(str, off, off + n);
+                off += n;
+                len -= n;
+                if (!chars.hasRemaining()) encode(false);
+            }
+        }
+
+        @Override
+        public void flush() {
+            // buffers are handed over when full and on close
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            encode(true);
+            while (encoder.flush(bytes()).isOverflow()) {
+                handOver();
+            }
+            if (bytes != null && bytes.position() > 0) {
+                handOver();
+            } else if (bytes != null) {
+                pool.offer(bytes);
+            }
+            submit(new Chunk(file, null));
+        }
+
+        private void encode(boolean endOfInput) throws IOException {
+            chars.flip();
+            while (true) {
+                CoderResult result = encoder.encode(chars, bytes(), endOfInput);
+                if (result.isOverflow()) {
+                    handOver();
+                } else if (result.isError()) {
+                    result.throwException();
+                } else {
+                    break;
+                }
+            }
+            chars.compact();
+        }
+
+        private ByteBuffer bytes() throws IOException {
+            if (bytes == null) bytes = acquire();
+            return bytes;
+        }
+
+        private void handOver() throws IOException {
+            bytes.flip();
+            submit(new Chunk(file, bytes));
+            bytes = null;
+        }
+    }
+
+    /** Counts the UTF-8 bytes a file would have. */
+    private final class CountingWriter extends Writer {
+        private final File file;
+        private long bytes;
+
+        CountingWriter(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                count(cbuf[i]);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                count(str.charAt(i));
+            }
+        }
+
+        private void count(char c) {
+            // a surrogate pair is 4 bytes: counted on the high surrogate
+            bytes += c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4
+                    : Character.isLowSurrogate(c) ? 0 : 3;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            counted.put(file, bytes);
+        }
+    }
+
+    // ==== Writer thread ====
+
+    private void drain() {
+        List<Chunk> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.clear();
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                if (process(batch)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeOpenFiles();
+        }
+    }
+
+    /** @return true on shutdown */
+    private boolean process(List<Chunk> batch) {
+        int i = 0;
+        while (i < batch.size()) {
+            Chunk chunk = batch.get(i);
+            if (chunk.file == null) {
+                return true;
+            }
+            if (chunk.buffer == null) {
+                closeFile(chunk.file);
+                i++;
+                continue;
+            }
+
+            // gather consecutive buffers of the same file into one write
+            int end = i;
+            while (end < batch.size() && batch.get(end).file == chunk.file && batch.get(end).buffer != null) {
+                end++;
+            }
+            ByteBuffer[] buffers = new ByteBuffer[end - i];
+            for (int j = i; j < end; j++) {
+                buffers[j - i] = batch.get(j).buffer;
+            }
+            write(chunk.file, buffers);
+            for (ByteBuffer b : buffers) {
+                pool.offer(b);
+            }
+            i = end;
+        }
+        return false;
+    }
+
+    private void write(FileState state, ByteBuffer[] buffers) {
+        if (failure != null) return;
+        try {
+            if (state.channel == null) {
+                state.event = new ConverterEvents.FileFlushEvent();
+                state.event.begin();
+                state.channel = FileChannel.open(state.file.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                openFiles.add(state);
+            }
+            long remaining = 0;
+            for (ByteBuffer b : buffers) remaining += b.remaining();
+            while (remaining > 0) {
+                long n = state.channel.write(buffers);
+                remaining -= n;
+                state.bytes += n;
+            }
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    private void closeFile(FileState state) {
+        if (failure != null) return;
+        try {
+            if (state.channel == null) {
+                // empty file: nothing was written yet
+                write(state, new ByteBuffer[0]);
+                if (failure != null) return;
+            }
+            state.channel.close();
+            openFiles.remove(state);
+            if (state.event.shouldCommit()) {
+                state.event.file = state.file.getAbsolutePath();
+                state.event.bytes = state.bytes;
+                state.event.commit();
+            }
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    private void fail(Throwable t) {
+        failure = t;
+        // the remaining files are incomplete anyway; do not keep them locked
+        closeOpenFiles();
+    }
+
+    private void closeOpenFiles() {
+        for (FileState state : openFiles) {
+            try {
+                state.channel.close();
+            } catch (IOException ex) {
+                if (failure != null && failure != ex) failure.addSuppressed(ex);
+            }
+        }
+        openFiles.clear();
+    }
+}
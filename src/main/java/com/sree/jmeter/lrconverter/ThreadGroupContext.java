@@ -0,0 +1,67 @@
+package com.sree.jmeter.lrconverter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-ThreadGroup conversion state shared by the code generators.
+ */
+class ThreadGroupContext {
+    final File scriptDir;
+    final ConverterOptions options;
+    final ScriptOutput output;
+    final FragmentResolver fragments;
+    final List<String> notes = new ArrayList<>();
+    final List<String> prunedCorrelations = new ArrayList<>();
+    final List<String> foldedSequences = new ArrayList<>();
+    /** C statements run once per vuser (vuser_init). */
+    final List<String> initCode = new ArrayList<>();
+    /** C statements at the start of every iteration (first action). */
+    final List<String> iterationCode = new ArrayList<>();
+    /** Runtime settings for the [WEB] section of default.cfg. */
+    final Map<String, String> webSettings = new LinkedHashMap<>();
+    /** User Defined Variables saved once in vuser_init. */
+    final List<String> userVariables = new ArrayList<>();
+    /** Converted assertions, one line each for conversion.log. */
+    final List<String> assertions = new ArrayList<>();
+    /** Transaction -> response time limit in ms, from Duration Assertions (sla.cfg). */
+    final Map<String, Long> slaThresholds = new LinkedHashMap<>();
+    /** Elements the converter skips (tag -> count), for conversion.log and dry runs. */
+    final Map<String, Integer> unsupported = new TreeMap<>();
+    /**
+     * Response scans (correlation and assertion registrations) per iteration, weighted by
+     * scanWeight: the known repeat count or branch probability of the code being generated.
+     */
+    double responseScans;
+    double scanWeight = 1;
+    CorrelationAnalysis correlations;
+    ConfigScope scope;
+    /** Set when generated code calls rand(); vuser_init then seeds it. */
+    boolean usesRandom;
+    private int blockIds;
+    private int unnamedIds;
+
+    ThreadGroupContext(File scriptDir, ConverterOptions options, ScriptOutput output, FragmentResolver fragments) {
+        this.scriptDir = scriptDir;
+        this.options = options;
+        this.output = output;
+        this.fragments = fragments;
+    }
+
+    /** Unique suffix for C variables declared by controller blocks. */
+    int nextBlockId() {
+        return ++blockIds;
+    }
+
+    /**
+     * Sequence number for samplers/transactions without a name. Generated names depend
+     * only on plan order, so the same plan always produces byte-identical scripts.
+     */
+    int nextUnnamedId() {
+        return ++unnamedIds;
+    }
+}
@@ -0,0 +1,194 @@
+package com.sree.jmeter.lrconverter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Converts generated plans, and the hand-written plans in src/test/resources/plans/&lt;case&gt;
+ * for elements the generator does not produce, and compares every output file byte for
+ * byte with src/test/resources/golden/&lt;case&gt;, so that performance work cannot silently
+ * change the generated scripts. The absolute output folder is written as ${OUT}, the
+ * plan folder as ${PLAN}.
+ *
+ * After an intended output change, regenerate the files with
+ * mvn test -Dtest=GoldenOutputTest -Dgolden.update=true and review the diff.
+ */
+class GoldenOutputTest {
+
+    private static final Path GOLDEN = Paths.get("src", "test", "resources", "golden");
+    private static final Path PLANS = Paths.get("src", "test", "resources", "plans");
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void defaultOptions() throws Exception {
+        JmxGenerator plan = new JmxGenerator()
+                .threadGroups(2)
+                .samplers(12)
+                .extractorEvery(3)
+                .nesting(2);
+        check("default", plan, new ConverterOptions());
+    }
+
+    @Test
+    void splitFoldAndPrune() throws Exception {
+        JmxGenerator plan = new JmxGenerator()
+                .samplers(15) // token_15 is extracted by the last sampler and never used
+                .samplersPerTransaction(4)
+                .extractorEvery(5)
+                .nesting(1)
+                .bodyBytes(120)
+                .pagedRun(4);
+        ConverterOptions options = new ConverterOptions();
+        options.setSplitActionsByTransaction(true);
+        options.setMaxSamplersPerAction(6);
+        options.setFoldRepeatedRequests(3);
+        options.setPruneUnusedCorrelations(true);
+        check("split-fold-prune", plan, options);
+    }
+
+    /** The ForEach input is a use of the extractor's parameter, the output a definition. */
+    @Test
+    void foreachKeepsItsInput() throws Exception {
+        ConverterOptions options = new ConverterOptions();
+        options.setPruneUnusedCorrelations(true);
+        check("foreach", options);
+    }
+
+    /** Included and module samplers take the HTTP Request Defaults in scope at the controller. */
+    @Test
+    void includeAndModuleUseDefaultsOfTheirPosition() throws Exception {
+        check("include", new ConverterOptions());
+    }
+
+    /** Both references in one loop pass must see the same row: EachIteration, not EachOccurrence. */
+    @Test
+    void csvInsideALoopKeepsOneRowPerIteration() throws Exception {
+        check("csv-loop", new ConverterOptions());
+    }
+
+    /** [WEB] settings only where a Cache or Cookie Manager is in scope; LR defaults otherwise. */
+    @Test
+    void runTimeSettingsFollowTheManagers() throws Exception {
+        check("managers", new ConverterOptions());
+    }
+
+    /** Response assertions (literal, regex, NOT, OR, codes) and Duration Assertions as SLAs. */
+    @Test
+    void assertionsAndSlas() throws Exception {
+        check("assertions", new ConverterOptions());
+    }
+
+    @Test
+    void parallelSamplers() throws Exception {
+        check("parallel", new ConverterOptions());
+    }
+
+    @Test
+    void whileLoops() throws Exception {
+        check("while", new ConverterOptions());
+    }
+
+    /** Top-level percent Throughput Controllers and a Random Controller become weighted run logic. */
+    @Test
+    void weightedMix() throws Exception {
+        check("weighted-mix", new ConverterOptions());
+    }
+
+    @Test
+    void sameOutputForRepeatedConversions() throws Exception {
+        File jmx = new JmxGenerator().threadGroups(2).samplers(30).nesting(3).write(tmp.resolve("plan").toFile());
+        TreeMap<String, byte[]> first = convert(jmx, tmp.resolve("first"), new ConverterOptions());
+        TreeMap<String, byte[]> second = convert(jmx, tmp.resolve("second"), new ConverterOptions());
+
+        assertEquals(first.keySet(), second.keySet(), "generated files");
+        for (String file : first.keySet()) {
+            assertArrayEquals(first.get(file), second.get(file), file + " differs between two conversions");
+        }
+    }
+
+    // ==== Helpers ====
+
+    private void check(String name, JmxGenerator plan, ConverterOptions options) throws Exception {
+        check(name, plan.write(tmp.resolve("plan").toFile()), options);
+    }
+
+    private void check(String name, ConverterOptions options) throws Exception {
+        check(name, PLANS.resolve(name).resolve("plan.jmx").toFile(), options);
+    }
+
+    private void check(String name, File jmx, ConverterOptions options) throws Exception {
+        TreeMap<String, byte[]> actual = convert(jmx, tmp.resolve("out"), options);
+        Path expectedDir = GOLDEN.resolve(name);
+
+        if (Boolean.getBoolean("golden.update")) {
+            for (String file : actual.keySet()) {
+                Path target = expectedDir.resolve(file);
+                Files.createDirectories(target.getParent());
+                Files.write(target, actual.get(file));
+            }
+            return;
+        }
+
+        TreeMap<String, byte[]> expected = read(expectedDir);
+        assertEquals(expected.keySet(), actual.keySet(), "generated files of case '" + name + "'");
+        for (String file : expected.keySet()) {
+            byte[] want = expected.get(file);
+            byte[] got = actual.get(file);
+            assertArrayEquals(want, got, () -> file + " differs from golden/" + name + "\n--- expected\n"
+                    + new String(want, StandardCharsets.UTF_8) + "\n--- actual\n" + new String(got, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Converts the plan and returns the output files by relative path, with ${OUT} for the
+     * output folder and ${PLAN} for the plan folder.
+     */
+    private static TreeMap<String, byte[]> convert(File jmx, Path outDir, ConverterOptions options) throws Exception {
+        ConverterCore.convert(jmx, outDir.toFile(), options);
+        TreeMap<String, byte[]> files = read(outDir);
+        for (String file : files.keySet()) {
+            if (file.endsWith(".log")) {
+                String text = new String(files.get(file), StandardCharsets.UTF_8);
+                text = relativize(text, outDir.toFile().getAbsolutePath(), "${OUT}");
+                text = relativize(text, jmx.getAbsoluteFile().getParent(), "${PLAN}");
+                files.put(file, text.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return files;
+    }
+
+    private static String relativize(String text, String absolute, String placeholder) {
+        return text.replace(absolute + File.separator, placeholder + "/").replace(absolute, placeholder);
+    }
+
+    private static TreeMap<String, byte[]> read(Path dir) throws IOException {
+        TreeMap<String, byte[]> files = new TreeMap<>();
+        if (!Files.isDirectory(dir)) {
+            return files;
+        }
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            paths = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            files.put(dir.relativize(path).toString().replace(File.separatorChar, '/'), Files.readAllBytes(path));
+        }
+        return files;
+    }
+}
@@ -0,0 +1,271 @@
+package com.sree.jmeter.lrconverter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Writes synthetic but realistic JMX plans for tests.
+ *
+ * Each ThreadGroup has HTTP Request Defaults, a Cookie Manager, an optional CSV Data Set
+ * and samplers grouped into TransactionControllers. Transaction bodies are nested in
+ * alternating Loop/If controllers, every n-th sampler gets a RegexExtractor whose value
+ * the next sampler sends back, POSTs carry a raw JSON body of the configured size, and
+ * each transaction can end with a paged run (page=1, page=2, ...).
+ *
+ * Output depends only on the settings and the seed.
+ */
+final class JmxGenerator {
+
+    private int threadGroups = 1;
+    private int samplers = 20;
+    private int samplersPerTransaction = 5;
+    private int arguments = 3;
+    private int extractorEvery = 3;
+    private int nesting = 1;
+    private int bodyBytes = 256;
+    private int csvRows = 10;
+    private int pagedRun;
+    private long seed = 42;
+
+    JmxGenerator threadGroups(int threadGroups) {
+        this.threadGroups = threadGroups;
+        return this;
+    }
+
+    /** Samplers per ThreadGroup, not counting paged runs. */
+    JmxGenerator samplers(int samplers) {
+        this.samplers = samplers;
+        return this;
+    }
+
+    JmxGenerator samplersPerTransaction(int samplersPerTransaction) {
+        this.samplersPerTransaction = samplersPerTransaction;
+        return this;
+    }
+
+    /** Query arguments per GET sampler. */
+    JmxGenerator arguments(int arguments) {
+        this.arguments = arguments;
+        return this;
+    }
+
+    /** Every n-th sampler extracts a token (0 = no extractors). */
+    JmxGenerator extractorEvery(int extractorEvery) {
+        this.extractorEvery = extractorEvery;
+        return this;
+    }
+
+    /** Logic controllers around each transaction body. */
+    JmxGenerator nesting(int nesting) {
+        this.nesting = nesting;
+        return this;
+    }
+
+    /** Raw body size of POST samplers (0 = only GETs). */
+    JmxGenerator bodyBytes(int bodyBytes) {
+        this.bodyBytes = bodyBytes;
+        return this;
+    }
+
+    /** Rows of the CSV Data Set file (0 = no CSV Data Set). */
+    JmxGenerator csvRows(int csvRows) {
+        this.csvRows = csvRows;
+        return this;
+    }
+
+    /** Requests for page=1..n at the end of each transaction (0 = none). */
+    JmxGenerator pagedRun(int pagedRun) {
+        this.pagedRun = pagedRun;
+        return this;
+    }
+
+    JmxGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /** Writes plan.jmx (and users.csv) into dir and returns the plan file. */
+    File write(File dir) throws IOException {
+        Files.createDirectories(dir.toPath());
+        Random random = new Random(seed);
+        if (csvRows > 0) {
+            try (Writer out = Files.newBufferedWriter(new File(dir, "users.csv").toPath(), StandardCharsets.UTF_8)) {
+                for (int i = 0; i < csvRows; i++) {
+                    out.write("user" + i + "," + word(random, 12) + "\n");
+                }
+            }
+        }
+
+        File plan = new File(dir, "plan.jmx");
+        try (Writer out = Files.newBufferedWriter(plan.toPath(), StandardCharsets.UTF_8)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<jmeterTestPlan version=\"1.2\" properties=\"5.0\" jmeter=\"5.6.3\">\n<hashTree>\n");
+            out.write("<TestPlan guiclass=\"TestPlanGui\" testclass=\"TestPlan\" testname=\"Generated Plan\"/>\n");
+            out.write("<hashTree>\n");
+            for (int tg = 1; tg <= threadGroups; tg++) {
+                writeThreadGroup(out, tg, random);
+            }
+            out.write("</hashTree>\n</hashTree>\n</jmeterTestPlan>\n");
+        }
+        return plan;
+    }
+
+    // ==== Plan structure ====
+
+    private void writeThreadGroup(Writer out, int tg, Random random) throws IOException {
+        out.write("<ThreadGroup guiclass=\"ThreadGroupGui\" testclass=\"ThreadGroup\" testname=\"Group " + tg + "\">\n");
+        out.write("  <elementProp name=\"ThreadGroup.main_controller\" elementType=\"LoopController\">\n");
+        out.write("    <stringProp name=\"LoopController.loops\">1</stringProp>\n");
+        out.write("  </elementProp>\n");
+        out.write("  <stringProp name=\"ThreadGroup.num_threads\">10</stringProp>\n");
+        out.write("</ThreadGroup>\n<hashTree>\n");
+
+        out.write("<ConfigTestElement guiclass=\"HttpDefaultsGui\" testclass=\"ConfigTestElement\" testname=\"Defaults\">\n");
+        out.write("  <stringProp name=\"HTTPSampler.protocol\">https</stringProp>\n");
+        out.write("  <stringProp name=\"HTTPSampler.domain\">shop" + tg + ".example.com</stringProp>\n");
+        out.write("</ConfigTestElement>\n<hashTree/>\n");
+        out.write("<CookieManager guiclass=\"CookiePanel\" testclass=\"CookieManager\" testname=\"Cookies\">\n");
+        out.write("  <boolProp name=\"CookieManager.clearEachIteration\">true</boolProp>\n");
+        out.write("</CookieManager>\n<hashTree/>\n");
+        if (csvRows > 0) {
+            out.write("<CSVDataSet guiclass=\"TestBeanGUI\" testclass=\"CSVDataSet\" testname=\"Users\">\n");
+            out.write("  <stringProp name=\"filename\">users.csv</stringProp>\n");
+            out.write("  <stringProp name=\"variableNames\">user,pass</stringProp>\n");
+            out.write("  <stringProp name=\"delimiter\">,</stringProp>\n");
+            out.write("  <stringProp name=\"shareMode\">shareMode.all</stringProp>\n");
+            out.write("  <boolProp name=\"recycle\">true</boolProp>\n");
+            out.write("</CSVDataSet>\n<hashTree/>\n");
+        }
+
+        int perTransaction = Math.max(1, samplersPerTransaction);
+        for (int first = 1; first <= samplers; first += perTransaction) {
+            int last = Math.min(samplers, first + perTransaction - 1);
+            out.write("<TransactionController guiclass=\"TransactionControllerGui\" testclass=\"TransactionController\""
+                    + " testname=\"T" + tg + "_" + first + "\"/>\n<hashTree>\n");
+            for (int level = 0; level < nesting; level++) {
+                writeController(out, level);
+            }
+            for (int s = first; s <= last; s++) {
+                writeSampler(out, tg, s, random);
+            }
+            for (int page = 1; page <= pagedRun; page++) {
+                writeSampler(out, "page " + page, "GET", "/catalog/t" + first, "page=" + page, null, null);
+            }
+            for (int level = 0; level < nesting; level++) {
+                out.write("</hashTree>\n");
+            }
+            out.write("</hashTree>\n");
+        }
+        out.write("</hashTree>\n");
+    }
+
+    private static void writeController(Writer out, int level) throws IOException {
+        if (level % 2 == 0) {
+            out.write("<LoopController guiclass=\"LoopControlPanel\" testclass=\"LoopController\" testname=\"Loop "
+                    + level + "\">\n  <stringProp name=\"LoopController.loops\">2</stringProp>\n</LoopController>\n");
+        } else {
+            out.write("<IfController guiclass=\"IfControllerPanel\" testclass=\"IfController\" testname=\"If "
+                    + level + "\">\n  <stringProp name=\"IfController.condition\">\"${user}\" != \"user0\"</stringProp>\n"
+                    + "</IfController>\n");
+        }
+        out.write("<hashTree>\n");
+    }
+
+    private void writeSampler(Writer out, int tg, int s, Random random) throws IOException {
+        boolean post = bodyBytes > 0 && s % 4 == 0;
+        String uses = extractorEvery > 0 && s > extractorEvery && (s - 1) % extractorEvery == 0
+                ? "token_" + (s - 1) : null;
+        String extracts = extractorEvery > 0 && s % extractorEvery == 0 ? "token_" + s : null;
+
+        StringBuilder query = new StringBuilder();
+        String body = null;
+        if (post) {
+            body = jsonBody(random, uses);
+        } else {
+            for (int a = 0; a < arguments; a++) {
+                if (query.length() > 0) query.append('&');
+                query.append(a == 0 && csvRows > 0 ? "user=${user}" : "p" + a + "=" + word(random, 8));
+            }
+            if (uses != null) {
+                query.append(query.length() > 0 ? "&" : "").append("token=${").append(uses).append('}');
+            }
+        }
+        writeSampler(out, "S" + tg + "_" + s, post ? "POST" : "GET", "/api/v1/resource" + s,
+                query.toString(), body, extracts);
+    }
+
+    private static void writeSampler(Writer out, String name, String method, String path, String query,
+                                     String body, String extracts) throws IOException {
+        out.write("<HTTPSamplerProxy guiclass=\"HttpTestSampleGui\" testclass=\"HTTPSamplerProxy\" testname=\""
+                + xml(name) + "\">\n");
+        out.write("  <stringProp name=\"HTTPSampler.path\">" + xml(path) + "</stringProp>\n");
+        out.write("  <stringProp name=\"HTTPSampler.method\">" + method + "</stringProp>\n");
+        out.write("  <boolProp name=\"HTTPSampler.postBodyRaw\">" + (body != null) + "</boolProp>\n");
+        out.write("  <elementProp name=\"HTTPsampler.Arguments\" elementType=\"Arguments\">\n");
+        out.write("    <collectionProp name=\"Arguments.arguments\">\n");
+        if (body != null) {
+            writeArgument(out, "", body);
+        } else {
+            for (String pair : query.isEmpty() ? new String[0] : query.split("&")) {
+                int eq = pair.indexOf('=');
+                writeArgument(out, pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        out.write("    </collectionProp>\n  </elementProp>\n</HTTPSamplerProxy>\n");
+
+        if (extracts == null) {
+            out.write("<hashTree/>\n");
+            return;
+        }
+        out.write("<hashTree>\n");
+        out.write("<RegexExtractor guiclass=\"RegexExtractorGui\" testclass=\"RegexExtractor\" testname=\"Extract "
+                + extracts + "\">\n");
+        out.write("  <stringProp name=\"RegexExtractor.refname\">" + extracts + "</stringProp>\n");
+        out.write("  <stringProp name=\"RegexExtractor.regex\">\"token\":\"(.+?)\"</stringProp>\n");
+        out.write("  <stringProp name=\"RegexExtractor.template\">$1$</stringProp>\n");
+        out.write("  <stringProp name=\"RegexExtractor.match_number\">1</stringProp>\n");
+        out.write("</RegexExtractor>\n<hashTree/>\n</hashTree>\n");
+    }
+
+    private static void writeArgument(Writer out, String name, String value) throws IOException {
+        out.write("      <elementProp name=\"" + xml(name) + "\" elementType=\"HTTPArgument\">\n");
+        out.write("        <boolProp name=\"HTTPArgument.always_encode\">false</boolProp>\n");
+        out.write("        <stringProp name=\"Argument.name\">" + xml(name) + "</stringProp>\n");
+        out.write("        <stringProp name=\"Argument.value\">" + xml(value) + "</stringProp>\n");
+        out.write("        <stringProp name=\"Argument.metadata\">=</stringProp>\n");
+        out.write("      </elementProp>\n");
+    }
+
+    // ==== Content ====
+
+    private String jsonBody(Random random, String token) {
+        StringBuilder json = new StringBuilder("{\"user\":\"").append(csvRows > 0 ? "${user}" : "guest").append('"');
+        if (token != null) {
+            json.append(",\"token\":\"${").append(token).append("}\"");
+        }
+        json.append(",\"items\":[");
+        boolean first = true;
+        while (json.length() < bodyBytes - 2) {
+            if (!first) json.append(',');
+            json.append("{\"sku\":\"").append(word(random, 10)).append("\",\"qty\":").append(1 + random.nextInt(9)).append('}');
+            first = false;
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String word(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+
+    private static String xml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,72 @@
+package com.sree.jmeter.lrconverter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Patterns that may be registered as LB/RB boundaries, and patterns that must stay
+ * web_reg_save_param_regexp because LR's boundary search would match different text.
+ */
+class RegexBoundaryAnalyzerTest {
+
+    /** regex, expected LB, expected RB */
+    private static final String[][] ACCEPTED = {
+            {"\"token\":\"(.+?)\"", "\"token\":\"", "\""},
+            {"name=\"sid\" value=\"(.*?)\"", "name=\"sid\" value=\"", "\""},
+            {"id=([^&]+)&", "id=", "&"},
+            {"id=([^&]*)&", "id=", "&"},
+            {"<b>([^<]+)<", "<b>", "<"},
+            {"\\(([^\\)]+)\\)", "(", ")"},
+            {"Order\\.Id=(.+?);", "Order.Id=", ";"},
+            {"user=${user}&t=(.+?)&", "user=${user}&t=", "&"},
+            {"<td>(.+?)</td>", "<td>", "</td>"},
+    };
+
+    private static final String[] REJECTED = {
+            // RB longer than the excluded character: LR would return text containing it
+            "\"id\":\"([^\"]+)\",",
+            "<b>([^<]+)</b>",
+            "id=([^&]+)&x",
+            // RB does not start with the excluded character
+            "id=([^&]+);",
+            // not a single lazy group between literals
+            "\"id\":(\\d+)",
+            "\"id\":\"(.+)\"",
+            "(.+?)\"",
+            "\"id\":\"(.+?)",
+            "a(.+?)b(.+?)c",
+            "(?i)token=(.+?)&",
+            "x|y(.+?)z",
+            "id=([^&;]+)&",
+            "id=([^\\d]+)&",
+            "\\sid=(.+?)&",
+            "",
+            null,
+    };
+
+    @Test
+    void acceptsLiteralsAroundALazyGroup() {
+        for (String[] row : ACCEPTED) {
+            RegexBoundaryAnalyzer.Boundaries b = RegexBoundaryAnalyzer.analyze(row[0]);
+            assertEquals(row[1] + " | " + row[2], b == null ? null : b.left + " | " + b.right, row[0]);
+        }
+    }
+
+    @Test
+    void rejectsPatternsBoundariesCannotExpress() {
+        for (String regex : REJECTED) {
+            RegexBoundaryAnalyzer.Boundaries b = RegexBoundaryAnalyzer.analyze(regex);
+            assertNull(b == null ? null : b.left + " | " + b.right, regex);
+        }
+    }
+
+    @Test
+    void literalUnescapesPlainText() {
+        assertEquals("Order.Id", RegexBoundaryAnalyzer.literal("Order\\.Id"), "escaped dot");
+        assertEquals("Welcome ${user}", RegexBoundaryAnalyzer.literal("Welcome ${user}"), "JMeter variable");
+        assertNull(RegexBoundaryAnalyzer.literal("Total: \\d+"), "class escape");
+        assertNull(RegexBoundaryAnalyzer.literal("a|b"), "alternation");
+    }
+}
@@ -0,0 +1,118 @@
+package com.sree.jmeter.lrconverter;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Converts generated plans of increasing size and checks that conversion time grows
+ * about linearly and that peak heap stays bounded relative to the plan size.
+ *
+ * Tagged "scale" and excluded from the default build; run with mvn test -Pscale-tests.
+ */
+@Tag("scale")
+class ScalingTest {
+
+    /** Samplers per ThreadGroup; each size doubles the previous one. */
+    private static final int[] SIZES = {500, 1000, 2000, 4000};
+    private static final int RUNS = 3;
+
+    /** Per-sampler time at the largest size may be at most this multiple of the smallest size's. */
+    private static final double MAX_TIME_GROWTH = 2.0;
+
+    /**
+     * Heap a conversion may use on top of the heap before it, per byte of plan (DOM plus
+     * generated code and output buffers; PlanCache estimates the DOM alone at 8x), plus
+     * headroom for young-generation garbage not yet collected.
+     */
+    private static final int HEAP_BYTES_PER_PLAN_BYTE = 24;
+    private static final long HEAP_HEADROOM = 128L * 1024 * 1024;
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void timeAndHeapGrowLinearly() throws Exception {
+        // warm up the JIT so the smallest size is not measured in the interpreter
+        File warmup = plan(SIZES[0], "warmup");
+        for (int i = 0; i < 3; i++) {
+            ConverterCore.convert(warmup, tmp.resolve("warmup-out").toFile(), new ConverterOptions());
+        }
+
+        double firstNanosPerSampler = 0;
+        double lastNanosPerSampler = 0;
+        StringBuilder report = new StringBuilder();
+        for (int size : SIZES) {
+            File jmx = plan(size, "plan" + size);
+            long best = Long.MAX_VALUE;
+            long peak = 0;
+            for (int run = 0; run < RUNS; run++) {
+                long before = usedHeapAfterGc();
+                long start = System.nanoTime();
+                ConverterCore.convert(jmx, tmp.resolve("out" + size + "_" + run).toFile(), new ConverterOptions());
+                best = Math.min(best, System.nanoTime() - start);
+                peak = Math.max(peak, peakHeap() - before);
+            }
+
+            lastNanosPerSampler = (double) best / size;
+            if (firstNanosPerSampler == 0) {
+                firstNanosPerSampler = lastNanosPerSampler;
+            }
+            report.append(String.format("%n  %5d samplers, %8d KB plan: %6d ms, peak heap +%d MB",
+                    size, jmx.length() / 1024, best / 1_000_000, peak / (1024 * 1024)));
+
+            long heapLimit = jmx.length() * HEAP_BYTES_PER_PLAN_BYTE + HEAP_HEADROOM;
+            long finalPeak = peak;
+            assertTrue(peak <= heapLimit, () -> "peak heap +" + finalPeak / (1024 * 1024) + " MB exceeds "
+                    + heapLimit / (1024 * 1024) + " MB for " + size + " samplers" + report);
+        }
+
+        System.out.println("Scaling:" + report);
+        double growth = lastNanosPerSampler / firstNanosPerSampler;
+        assertTrue(growth <= MAX_TIME_GROWTH, () -> String.format(
+                "time per sampler grew %.1fx from %d to %d samplers%s", growth, SIZES[0], SIZES[SIZES.length - 1], report));
+    }
+
+    private File plan(int samplers, String dir) throws Exception {
+        return new JmxGenerator()
+                .threadGroups(2)
+                .samplers(samplers)
+                .arguments(5)
+                .extractorEvery(3)
+                .nesting(2)
+                .bodyBytes(2048)
+                .csvRows(samplers)
+                .write(tmp.resolve(dir).toFile());
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    /** Sum of the heap pools' peak usage since the last reset (an upper bound of the real peak). */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
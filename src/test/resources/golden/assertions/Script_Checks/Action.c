@@ -0,0 +1,76 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action()
+{
+    int rc = 0;
+
+    web_reg_find("Text=Welcome",
+        "Search=Noresource",
+        LAST);
+
+    web_reg_save_param_regexp(
+        "ParamName=assert_2",
+        "RegExp=Order #\\d+",
+        "Ordinal=1",
+        SEARCH_FILTERS,
+        "Scope=Body",
+        "IgnoreRedirections=Yes",
+        LAST);
+
+    web_reg_find("Text=Exception",
+        "Search=Noresource",
+        "Fail=Found",
+        LAST);
+
+    lr_start_transaction("home");
+
+    web_url("home",
+        "URL=http://shop.example.com/",
+        "TargetFrame=",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    rc = web_get_int_property(HTTP_INFO_RETURN_CODE);
+    if (!(rc / 100 == 2)) {
+        lr_error_message("Response Assertion 'status 2xx' on 'home' failed");
+        lr_set_transaction_status(LR_FAIL);
+    }
+
+    lr_end_transaction("home", LR_AUTO);
+
+    lr_start_transaction("checkout");
+
+    web_reg_find("Text=X-Cart-Id",
+        "Search=Headers",
+        "SaveCount=assert_1",
+        LAST);
+    web_reg_find("Text=X-Session",
+        "Search=Headers",
+        "SaveCount=assert_2",
+        LAST);
+
+    web_url("cart",
+        "URL=http://shop.example.com/cart",
+        "TargetFrame=",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    if (!(atoi(lr_eval_string("{assert_1}")) > 0 || atoi(lr_eval_string("{assert_2}")) > 0)) {
+        lr_error_message("Response Assertion 'cart header' on 'cart' failed");
+        lr_set_transaction_status(LR_FAIL);
+    }
+    rc = web_get_int_property(HTTP_INFO_DOWNLOAD_TIME);
+    if (rc > 1500) {
+        lr_error_message("Duration Assertion 'fast cart' on 'cart' failed: %d ms > 1500 ms", rc);
+        lr_set_transaction_status(LR_FAIL);
+    }
+
+    lr_end_transaction("checkout", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,40 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action()
+{
+    int rc = 0;
+
+    // LoopController: three users
+    {
+        int loop_1;
+        for (loop_1 = 0; loop_1 < 3; loop_1++) {
+            lr_start_transaction("login");
+
+            web_url("login",
+                "URL=http://app.example.com/login?user={user}&pass={pass}",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            lr_end_transaction("login", LR_AUTO);
+
+            lr_start_transaction("profile");
+
+            web_url("profile",
+                "URL=http://app.example.com/users/{user}",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            lr_end_transaction("profile", LR_AUTO);
+
+        }
+    }
+
+
+    return 0;
+}
@@ -0,0 +1,185 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action()
+{
+    int rc = 0;
+
+    web_cleanup_cookies();
+
+    lr_start_transaction("T1_1");
+
+    // LoopController: Loop 0
+    {
+        int loop_1;
+        for (loop_1 = 0; loop_1 < 2; loop_1++) {
+            // IfController: If 1
+            if (strcmp(lr_eval_string("{user}"), "user0") != 0) {
+                web_url("S1_1",
+                    "URL=https://shop1.example.com/api/v1/resource1?user={user}&p1=wqkvguih&p2=fqwusyuo",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+                web_url("S1_2",
+                    "URL=https://shop1.example.com/api/v1/resource2?user={user}&p1=xqvrxntl&p2=wtqrtlgz",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+                web_reg_save_param_ex(
+                    "ParamName=token_3",
+                    "LB=\"token\":\"",
+                    "RB=\"",
+                    "Ordinal=1",
+                    SEARCH_FILTERS,
+                    "Scope=Body",
+                    "IgnoreRedirections=Yes",
+                    LAST);
+
+                web_url("S1_3",
+                    "URL=https://shop1.example.com/api/v1/resource3?user={user}&p1=hnxjglet&p2=aegilyut",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+                web_custom_request("S1_4",
+                    "URL=https://shop1.example.com/api/v1/resource4",
+                    "Method=POST",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    "Body={\"user\":\"{user}\",\"token\":\"{token_3}\",\"items\":[{\"sku\":\"dvaifeozyg\",\"qty\":8},{\"sku\":\"karczkvizs\",\"qty\":7},{\"sku\":\"edwaattxbg\",\"qty\":4},{\"sku\":\"quydtqdgoy\",\"qty\":8},{\"sku\":\"scidnlnpvz\",\"qty\":8},{\"sku\":\"xtzunerdje\",\"qty\":7},{\"sku\":\"klhkxyemfm\",\"qty\":4},{\"sku\":\"tlzadzbndx\",\"qty\":4}]}",
+                    LAST);
+
+                web_url("S1_5",
+                    "URL=https://shop1.example.com/api/v1/resource5?user={user}&p1=frjhsdkm&p2=elbxluss",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+            }
+
+        }
+    }
+
+    lr_end_transaction("T1_1", LR_AUTO);
+
+    lr_start_transaction("T1_6");
+
+    // LoopController: Loop 0
+    {
+        int loop_2;
+        for (loop_2 = 0; loop_2 < 2; loop_2++) {
+            // IfController: If 1
+            if (strcmp(lr_eval_string("{user}"), "user0") != 0) {
+                web_reg_save_param_ex(
+                    "ParamName=token_6",
+                    "LB=\"token\":\"",
+                    "RB=\"",
+                    "Ordinal=1",
+                    SEARCH_FILTERS,
+                    "Scope=Body",
+                    "IgnoreRedirections=Yes",
+                    LAST);
+
+                web_url("S1_6",
+                    "URL=https://shop1.example.com/api/v1/resource6?user={user}&p1=yjwtcqvi&p2=flijuelk",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+                web_url("S1_7",
+                    "URL=https://shop1.example.com/api/v1/resource7?user={user}&p1=bkeyjknt&p2=hrfdxbcc&token={token_6}",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+                web_custom_request("S1_8",
+                    "URL=https://shop1.example.com/api/v1/resource8",
+                    "Method=POST",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    "Body={\"user\":\"{user}\",\"items\":[{\"sku\":\"kblvosveuq\",\"qty\":3},{\"sku\":\"wtnzkbfuzy\",\"qty\":1},{\"sku\":\"rxckktjleu\",\"qty\":8},{\"sku\":\"plgvijedmq\",\"qty\":7},{\"sku\":\"nymxtswvoe\",\"qty\":2},{\"sku\":\"ctxukswfgo\",\"qty\":6},{\"sku\":\"tzufcubopm\",\"qty\":4},{\"sku\":\"umfylgrxnu\",\"qty\":2}]}",
+                    LAST);
+
+                web_reg_save_param_ex(
+                    "ParamName=token_9",
+                    "LB=\"token\":\"",
+                    "RB=\"",
+                    "Ordinal=1",
+                    SEARCH_FILTERS,
+                    "Scope=Body",
+                    "IgnoreRedirections=Yes",
+                    LAST);
+
+                web_url("S1_9",
+                    "URL=https://shop1.example.com/api/v1/resource9?user={user}&p1=srzqdsay&p2=jbjpsxkj",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+                web_url("S1_10",
+                    "URL=https://shop1.example.com/api/v1/resource10?user={user}&p1=qeutdcsy&p2=arpmlcbj&token={token_9}",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+            }
+
+        }
+    }
+
+    lr_end_transaction("T1_6", LR_AUTO);
+
+    lr_start_transaction("T1_11");
+
+    // LoopController: Loop 0
+    {
+        int loop_3;
+        for (loop_3 = 0; loop_3 < 2; loop_3++) {
+            // IfController: If 1
+            if (strcmp(lr_eval_string("{user}"), "user0") != 0) {
+                web_url("S1_11",
+                    "URL=https://shop1.example.com/api/v1/resource11?user={user}&p1=qvlwovij&p2=fgcpttgm",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+                web_reg_save_param_ex(
+                    "ParamName=token_12",
+                    "LB=\"token\":\"",
+                    "RB=\"",
+                    "Ordinal=1",
+                    SEARCH_FILTERS,
+                    "Scope=Body",
+                    "IgnoreRedirections=Yes",
+                    LAST);
+
+                web_custom_request("S1_12",
+                    "URL=https://shop1.example.com/api/v1/resource12",
+                    "Method=POST",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    "Body={\"user\":\"{user}\",\"items\":[{\"sku\":\"gcxhayylxa\",\"qty\":1},{\"sku\":\"mkctvqnsdp\",\"qty\":1},{\"sku\":\"fzmdvoziah\",\"qty\":8},{\"sku\":\"cckypnkjel\",\"qty\":9},{\"sku\":\"ejcccbaxes\",\"qty\":5},{\"sku\":\"luyojparnu\",\"qty\":7},{\"sku\":\"sxompbksll\",\"qty\":8},{\"sku\":\"jgzkghdvql\",\"qty\":1}]}",
+                    LAST);
+
+            }
+
+        }
+    }
+
+    lr_end_transaction("T1_11", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,185 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action()
+{
+    int rc = 0;
+
+    web_cleanup_cookies();
+
+    lr_start_transaction("T2_1");
+
+    // LoopController: Loop 0
+    {
+        int loop_1;
+        for (loop_1 = 0; loop_1 < 2; loop_1++) {
+            // IfController: If 1
+            if (strcmp(lr_eval_string("{user}"), "user0") != 0) {
+                web_url("S2_1",
+                    "URL=https://shop2.example.com/api/v1/resource1?user={user}&p1=akwgauod&p2=cznfmrxe",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+                web_url("S2_2",
+                    "URL=https://shop2.example.com/api/v1/resource2?user={user}&p1=wamvafww&p2=ryggotpr",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+                web_reg_save_param_ex(
+                    "ParamName=token_3",
+                    "LB=\"token\":\"",
+                    "RB=\"",
+                    "Ordinal=1",
+                    SEARCH_FILTERS,
+                    "Scope=Body",
+                    "IgnoreRedirections=Yes",
+                    LAST);
+
+                web_url("S2_3",
+                    "URL=https://shop2.example.com/api/v1/resource3?user={user}&p1=shrunjep&p2=jicsfdib",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+                web_custom_request("S2_4",
+                    "URL=https://shop2.example.com/api/v1/resource4",
+                    "Method=POST",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    "Body={\"user\":\"{user}\",\"token\":\"{token_3}\",\"items\":[{\"sku\":\"mcdiqeetui\",\"qty\":7},{\"sku\":\"tszjpbvkgy\",\"qty\":4},{\"sku\":\"svuhjbxpli\",\"qty\":6},{\"sku\":\"mkddpvnzur\",\"qty\":3},{\"sku\":\"tuumhfzgrn\",\"qty\":4},{\"sku\":\"enwgvsrdgk\",\"qty\":3},{\"sku\":\"kartbdckym\",\"qty\":6},{\"sku\":\"cefubdvxec\",\"qty\":9}]}",
+                    LAST);
+
+                web_url("S2_5",
+                    "URL=https://shop2.example.com/api/v1/resource5?user={user}&p1=mhevvozp&p2=utfmakdp",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+            }
+
+        }
+    }
+
+    lr_end_transaction("T2_1", LR_AUTO);
+
+    lr_start_transaction("T2_6");
+
+    // LoopController: Loop 0
+    {
+        int loop_2;
+        for (loop_2 = 0; loop_2 < 2; loop_2++) {
+            // IfController: If 1
+            if (strcmp(lr_eval_string("{user}"), "user0") != 0) {
+                web_reg_save_param_ex(
+                    "ParamName=token_6",
+                    "LB=\"token\":\"",
+                    "RB=\"",
+                    "Ordinal=1",
+                    SEARCH_FILTERS,
+                    "Scope=Body",
+                    "IgnoreRedirections=Yes",
+                    LAST);
+
+                web_url("S2_6",
+                    "URL=https://shop2.example.com/api/v1/resource6?user={user}&p1=shtharug&p2=hbutzyqg",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+                web_url("S2_7",
+                    "URL=https://shop2.example.com/api/v1/resource7?user={user}&p1=kgjwbpox&p2=vodckizg&token={token_6}",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+                web_custom_request("S2_8",
+                    "URL=https://shop2.example.com/api/v1/resource8",
+                    "Method=POST",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    "Body={\"user\":\"{user}\",\"items\":[{\"sku\":\"lhjcvwjpdt\",\"qty\":1},{\"sku\":\"pzkmcqaqpj\",\"qty\":7},{\"sku\":\"ikudwojeac\",\"qty\":5},{\"sku\":\"aghajuagux\",\"qty\":9},{\"sku\":\"jxrxwjuztu\",\"qty\":3},{\"sku\":\"ihwwhcpjpb\",\"qty\":4},{\"sku\":\"fzbmneshhx\",\"qty\":6},{\"sku\":\"xsiootqbya\",\"qty\":7}]}",
+                    LAST);
+
+                web_reg_save_param_ex(
+                    "ParamName=token_9",
+                    "LB=\"token\":\"",
+                    "RB=\"",
+                    "Ordinal=1",
+                    SEARCH_FILTERS,
+                    "Scope=Body",
+                    "IgnoreRedirections=Yes",
+                    LAST);
+
+                web_url("S2_9",
+                    "URL=https://shop2.example.com/api/v1/resource9?user={user}&p1=zrfkjcjo&p2=arsxbeqn",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+                web_url("S2_10",
+                    "URL=https://shop2.example.com/api/v1/resource10?user={user}&p1=wbeybtrl&p2=lbjtopxy&token={token_9}",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+            }
+
+        }
+    }
+
+    lr_end_transaction("T2_6", LR_AUTO);
+
+    lr_start_transaction("T2_11");
+
+    // LoopController: Loop 0
+    {
+        int loop_3;
+        for (loop_3 = 0; loop_3 < 2; loop_3++) {
+            // IfController: If 1
+            if (strcmp(lr_eval_string("{user}"), "user0") != 0) {
+                web_url("S2_11",
+                    "URL=https://shop2.example.com/api/v1/resource11?user={user}&p1=avbufkfx&p2=cyzjxgyv",
+                    "TargetFrame=",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    LAST);
+
+                web_reg_save_param_ex(
+                    "ParamName=token_12",
+                    "LB=\"token\":\"",
+                    "RB=\"",
+                    "Ordinal=1",
+                    SEARCH_FILTERS,
+                    "Scope=Body",
+                    "IgnoreRedirections=Yes",
+                    LAST);
+
+                web_custom_request("S2_12",
+                    "URL=https://shop2.example.com/api/v1/resource12",
+                    "Method=POST",
+                    "Resource=0",
+                    "Mode=HTTP",
+                    "Body={\"user\":\"{user}\",\"items\":[{\"sku\":\"ickoamfvvw\",\"qty\":8},{\"sku\":\"ptncgqiemx\",\"qty\":9},{\"sku\":\"mhteigrnsq\",\"qty\":4},{\"sku\":\"pzaolsbmge\",\"qty\":2},{\"sku\":\"fbigqukjlu\",\"qty\":2},{\"sku\":\"tudnvrjbqv\",\"qty\":2},{\"sku\":\"coiejrxlfn\",\"qty\":8},{\"sku\":\"gzgaseuggp\",\"qty\":6}]}",
+                    LAST);
+
+            }
+
+        }
+    }
+
+    lr_end_transaction("T2_11", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,61 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action()
+{
+    int rc = 0;
+
+    web_reg_save_param_regexp(
+        "ParamName=id",
+        "RegExp=\"id\":\"(\\d+)\"",
+        "Ordinal=ALL",
+        SEARCH_FILTERS,
+        "Scope=Body",
+        "IgnoreRedirections=Yes",
+        LAST);
+
+    // Pruned: {etag} is never referenced in this script.
+    // web_reg_save_param_regexp(
+    //     "ParamName=etag",
+    //     "RegExp=\"etag\":\"(\\w+)\"",
+    //     "Ordinal=1",
+    //     SEARCH_FILTERS,
+    //     "Scope=Body",
+    //     "IgnoreRedirections=Yes",
+    //     LAST);
+
+    lr_start_transaction("list");
+
+    web_url("list",
+        "URL=http://api.example.com/items",
+        "TargetFrame=",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    lr_end_transaction("list", LR_AUTO);
+
+    // ForeachController: each item
+    {
+        int foreach_1;
+        for (foreach_1 = 1; foreach_1 <= lr_paramarr_len("id"); foreach_1++) {
+            lr_save_string(lr_paramarr_idx("id", foreach_1), "cur");
+
+            lr_start_transaction("item");
+
+            web_url("item",
+                "URL=http://api.example.com/items/{cur}",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            lr_end_transaction("item", LR_AUTO);
+
+        }
+    }
+
+
+    return 0;
+}
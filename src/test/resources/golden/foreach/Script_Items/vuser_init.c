@@ -0,0 +1,9 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+vuser_init()
+{
+    // TODO: Add login / init steps if needed
+    return 0;
+}
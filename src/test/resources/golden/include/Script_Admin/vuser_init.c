@@ -0,0 +1,10 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+vuser_init()
+{
+    lr_save_string("shop.example.com", "host");
+    // TODO: Add login / init steps if needed
+    return 0;
+}
@@ -0,0 +1,37 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action()
+{
+    int rc = 0;
+
+    // IncludeController: login (fragment.jmx)
+    // TestFragmentController: Login
+    lr_start_transaction("frag");
+
+    web_url("frag",
+        "URL=https://{host}/frag",
+        "TargetFrame=",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    lr_end_transaction("frag", LR_AUTO);
+
+    // ModuleController: shared steps
+    // TestFragmentController: Shared
+    lr_start_transaction("shared");
+
+    web_url("shared",
+        "URL=https://{host}/shared",
+        "TargetFrame=",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    lr_end_transaction("shared", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,22 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action()
+{
+    int rc = 0;
+
+    lr_start_transaction("status");
+
+    web_url("status",
+        "URL=http://www.example.com/status",
+        "TargetFrame=",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    lr_end_transaction("status", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,24 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action()
+{
+    int rc = 0;
+
+    web_cache_cleanup();
+
+    lr_start_transaction("home");
+
+    web_url("home",
+        "URL=http://www.example.com/",
+        "TargetFrame=",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    lr_end_transaction("home", LR_AUTO);
+
+
+    return 0;
+}
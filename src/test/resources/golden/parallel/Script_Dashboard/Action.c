@@ -0,0 +1,70 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action()
+{
+    int rc = 0;
+
+    // Parallel Controller: widgets
+    lr_start_transaction("widgets");
+
+    web_concurrent_start(NULL);
+
+        web_url("news",
+            "URL=http://dash.example.com/widgets/news",
+            "TargetFrame=",
+            "Resource=0",
+            "Mode=HTTP",
+            LAST);
+
+        web_url("quotes",
+            "URL=http://dash.example.com/widgets/quotes",
+            "TargetFrame=",
+            "Resource=0",
+            "Mode=HTTP",
+            LAST);
+
+    web_concurrent_end(NULL);
+
+    // LoopController: poll
+    {
+        int loop_1;
+        for (loop_1 = 0; loop_1 < 2; loop_1++) {
+            web_url("ping",
+                "URL=http://dash.example.com/ping",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+        }
+    }
+
+    lr_end_transaction("widgets", LR_AUTO);
+
+    lr_start_transaction("assets");
+
+    web_concurrent_start(NULL);
+
+        web_url("assets_1",
+            "URL=https://cdn.example.com/app.js",
+            "TargetFrame=",
+            "Resource=0",
+            "Mode=HTTP",
+            LAST);
+
+        web_url("assets_2",
+            "URL=https://cdn.example.com/app.css",
+            "TargetFrame=",
+            "Resource=0",
+            "Mode=HTTP",
+            LAST);
+
+    web_concurrent_end(NULL);
+
+    lr_end_transaction("assets", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,69 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action1()
+{
+    int rc = 0;
+
+    web_cleanup_cookies();
+
+    lr_start_transaction("T1_1");
+
+    // LoopController: Loop 0
+    {
+        int loop_1;
+        for (loop_1 = 0; loop_1 < 2; loop_1++) {
+            web_url("S1_1",
+                "URL=https://shop1.example.com/api/v1/resource1?user={user}&p1=wqkvguih&p2=fqwusyuo",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            web_url("S1_2",
+                "URL=https://shop1.example.com/api/v1/resource2?user={user}&p1=xqvrxntl&p2=wtqrtlgz",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            web_url("S1_3",
+                "URL=https://shop1.example.com/api/v1/resource3?user={user}&p1=hnxjglet&p2=aegilyut",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            web_custom_request("S1_4",
+                "URL=https://shop1.example.com/api/v1/resource4",
+                "Method=POST",
+                "Resource=0",
+                "Mode=HTTP",
+                "Body={\"user\":\"{user}\",\"items\":[{\"sku\":\"dvaifeozyg\",\"qty\":8},{\"sku\":\"karczkvizs\",\"qty\":7},{\"sku\":\"edwaattxbg\",\"qty\":4},{\"sku\":\"quydtqdgoy\",\"qty\":8}]}",
+                LAST);
+
+            // 4 similar requests folded into a loop
+            {
+                int fold_2;
+                for (fold_2 = 0; fold_2 < 4; fold_2++) {
+                    lr_param_sprintf("fold_2_1", "%d", 1 + fold_2);
+
+                    web_url(lr_eval_string("page {fold_2_1}"),
+                        "URL=https://shop1.example.com/catalog/t1?page={fold_2_1}",
+                        "TargetFrame=",
+                        "Resource=0",
+                        "Mode=HTTP",
+                        LAST);
+
+                }
+            }
+
+        }
+    }
+
+    lr_end_transaction("T1_1", LR_AUTO);
+
+
+    return 0;
+}
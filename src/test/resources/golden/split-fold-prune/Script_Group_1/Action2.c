@@ -0,0 +1,77 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action2()
+{
+    int rc = 0;
+
+    lr_start_transaction("T1_5");
+
+    // LoopController: Loop 0
+    {
+        int loop_3;
+        for (loop_3 = 0; loop_3 < 2; loop_3++) {
+            web_reg_save_param_ex(
+                "ParamName=token_5",
+                "LB=\"token\":\"",
+                "RB=\"",
+                "Ordinal=1",
+                SEARCH_FILTERS,
+                "Scope=Body",
+                "IgnoreRedirections=Yes",
+                LAST);
+
+            web_url("S1_5",
+                "URL=https://shop1.example.com/api/v1/resource5?user={user}&p1=scidnlnp&p2=vztxtzun",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            web_url("S1_6",
+                "URL=https://shop1.example.com/api/v1/resource6?user={user}&p1=erdjenkl&p2=hkxyemfm&token={token_5}",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            web_url("S1_7",
+                "URL=https://shop1.example.com/api/v1/resource7?user={user}&p1=qtlzadzb&p2=ndxvfrjh",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            web_custom_request("S1_8",
+                "URL=https://shop1.example.com/api/v1/resource8",
+                "Method=POST",
+                "Resource=0",
+                "Mode=HTTP",
+                "Body={\"user\":\"{user}\",\"items\":[{\"sku\":\"sdkmelbxlu\",\"qty\":6},{\"sku\":\"syjwtcqvif\",\"qty\":3},{\"sku\":\"ijuelkbkey\",\"qty\":5},{\"sku\":\"knthrfdxbc\",\"qty\":4}]}",
+                LAST);
+
+            // 4 similar requests folded into a loop
+            {
+                int fold_4;
+                for (fold_4 = 0; fold_4 < 4; fold_4++) {
+                    lr_param_sprintf("fold_4_1", "%d", 1 + fold_4);
+
+                    web_url(lr_eval_string("page {fold_4_1}"),
+                        "URL=https://shop1.example.com/catalog/t5?page={fold_4_1}",
+                        "TargetFrame=",
+                        "Resource=0",
+                        "Mode=HTTP",
+                        LAST);
+
+                }
+            }
+
+        }
+    }
+
+    lr_end_transaction("T1_5", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,77 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action3()
+{
+    int rc = 0;
+
+    lr_start_transaction("T1_9");
+
+    // LoopController: Loop 0
+    {
+        int loop_5;
+        for (loop_5 = 0; loop_5 < 2; loop_5++) {
+            web_url("S1_9",
+                "URL=https://shop1.example.com/api/v1/resource9?user={user}&p1=kblvosve&p2=uqfwtnzk",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            web_reg_save_param_ex(
+                "ParamName=token_10",
+                "LB=\"token\":\"",
+                "RB=\"",
+                "Ordinal=1",
+                SEARCH_FILTERS,
+                "Scope=Body",
+                "IgnoreRedirections=Yes",
+                LAST);
+
+            web_url("S1_10",
+                "URL=https://shop1.example.com/api/v1/resource10?user={user}&p1=bfuzysrx&p2=ckktjleu",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            web_url("S1_11",
+                "URL=https://shop1.example.com/api/v1/resource11?user={user}&p1=vplgvije&p2=dmqlnymx&token={token_10}",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            web_custom_request("S1_12",
+                "URL=https://shop1.example.com/api/v1/resource12",
+                "Method=POST",
+                "Resource=0",
+                "Mode=HTTP",
+                "Body={\"user\":\"{user}\",\"items\":[{\"sku\":\"tswvoerctx\",\"qty\":4},{\"sku\":\"kswfgoetzu\",\"qty\":7},{\"sku\":\"cubopmiumf\",\"qty\":4},{\"sku\":\"lgrxnuesrz\",\"qty\":3}]}",
+                LAST);
+
+            // 4 similar requests folded into a loop
+            {
+                int fold_6;
+                for (fold_6 = 0; fold_6 < 4; fold_6++) {
+                    lr_param_sprintf("fold_6_1", "%d", 1 + fold_6);
+
+                    web_url(lr_eval_string("page {fold_6_1}"),
+                        "URL=https://shop1.example.com/catalog/t9?page={fold_6_1}",
+                        "TargetFrame=",
+                        "Resource=0",
+                        "Mode=HTTP",
+                        LAST);
+
+                }
+            }
+
+        }
+    }
+
+    lr_end_transaction("T1_9", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,70 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action4()
+{
+    int rc = 0;
+
+    lr_start_transaction("T1_13");
+
+    // LoopController: Loop 0
+    {
+        int loop_7;
+        for (loop_7 = 0; loop_7 < 2; loop_7++) {
+            web_url("S1_13",
+                "URL=https://shop1.example.com/api/v1/resource13?user={user}&p1=dsayjbjp&p2=sxkjqeut",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            web_url("S1_14",
+                "URL=https://shop1.example.com/api/v1/resource14?user={user}&p1=dcsyarpm&p2=lcbjqvlw",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            // Pruned: {token_15} is never referenced in this script.
+            // web_reg_save_param_ex(
+            //     "ParamName=token_15",
+            //     "LB=\"token\":\"",
+            //     "RB=\"",
+            //     "Ordinal=1",
+            //     SEARCH_FILTERS,
+            //     "Scope=Body",
+            //     "IgnoreRedirections=Yes",
+            //     LAST);
+
+            web_url("S1_15",
+                "URL=https://shop1.example.com/api/v1/resource15?user={user}&p1=ovijfgcp&p2=ttgmgcxh",
+                "TargetFrame=",
+                "Resource=0",
+                "Mode=HTTP",
+                LAST);
+
+            // 4 similar requests folded into a loop
+            {
+                int fold_8;
+                for (fold_8 = 0; fold_8 < 4; fold_8++) {
+                    lr_param_sprintf("fold_8_1", "%d", 1 + fold_8);
+
+                    web_url(lr_eval_string("page {fold_8_1}"),
+                        "URL=https://shop1.example.com/catalog/t13?page={fold_8_1}",
+                        "TargetFrame=",
+                        "Resource=0",
+                        "Mode=HTTP",
+                        LAST);
+
+                }
+            }
+
+        }
+    }
+
+    lr_end_transaction("T1_13", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,22 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action1()
+{
+    int rc = 0;
+
+    lr_start_transaction("login");
+
+    web_url("login",
+        "URL=http://shop.example.com/login",
+        "TargetFrame=",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    lr_end_transaction("login", LR_AUTO);
+
+
+    return 0;
+}
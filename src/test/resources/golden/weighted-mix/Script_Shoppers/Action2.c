@@ -0,0 +1,22 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action2()
+{
+    int rc = 0;
+
+    lr_start_transaction("logout");
+
+    web_url("logout",
+        "URL=http://shop.example.com/logout",
+        "TargetFrame=",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    lr_end_transaction("logout", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,22 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Browse()
+{
+    int rc = 0;
+
+    lr_start_transaction("browse");
+
+    web_url("browse",
+        "URL=http://shop.example.com/catalog",
+        "TargetFrame=",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    lr_end_transaction("browse", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,22 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Buy()
+{
+    int rc = 0;
+
+    lr_start_transaction("buy");
+
+    web_url("buy",
+        "URL=http://shop.example.com/checkout",
+        "TargetFrame=",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    lr_end_transaction("buy", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,22 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Search()
+{
+    int rc = 0;
+
+    lr_start_transaction("search");
+
+    web_url("search",
+        "URL=http://shop.example.com/search?q=shoes",
+        "TargetFrame=",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    lr_end_transaction("search", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,22 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+reviews()
+{
+    int rc = 0;
+
+    lr_start_transaction("reviews");
+
+    web_url("reviews",
+        "URL=http://shop.example.com/reviews",
+        "TargetFrame=",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    lr_end_transaction("reviews", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,22 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+wishlist()
+{
+    int rc = 0;
+
+    lr_start_transaction("wishlist");
+
+    web_url("wishlist",
+        "URL=http://shop.example.com/wishlist",
+        "TargetFrame=",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    lr_end_transaction("wishlist", LR_AUTO);
+
+
+    return 0;
+}
@@ -0,0 +1,71 @@
+#include "lrun.h"
+#include "web_api.h"
+#include "lrw_custom_body.h"
+
+Action()
+{
+    int rc = 0;
+
+    web_reg_save_param_json(
+        "ParamName=job",
+        "QueryString=$.id",
+        SEARCH_FILTERS,
+        "Scope=Body",
+        "IgnoreRedirections=Yes",
+        LAST);
+
+    lr_start_transaction("start export");
+
+    web_custom_request("start export",
+        "URL=http://api.example.com/exports",
+        "Method=POST",
+        "Resource=0",
+        "Mode=HTTP",
+        LAST);
+
+    lr_end_transaction("start export", LR_AUTO);
+
+    // WhileController: until done
+    while (strcmp(lr_eval_string("{state}"), "done") != 0) {
+        web_reg_save_param_ex(
+            "ParamName=state",
+            "LB=\"state\":\"",
+            "RB=\"",
+            "Ordinal=1",
+            SEARCH_FILTERS,
+            "Scope=Body",
+            "IgnoreRedirections=Yes",
+            LAST);
+
+        lr_start_transaction("poll");
+
+        web_url("poll",
+            "URL=http://api.example.com/exports/{job}",
+            "TargetFrame=",
+            "Resource=0",
+            "Mode=HTTP",
+            LAST);
+
+        lr_end_transaction("poll", LR_AUTO);
+
+    }
+
+    // WhileController: until error
+    for (;;) {
+        lr_start_transaction("next page");
+
+        web_url("next page",
+            "URL=http://api.example.com/exports/{job}/next",
+            "TargetFrame=",
+            "Resource=0",
+            "Mode=HTTP",
+            LAST);
+
+        lr_end_transaction("next page", LR_AUTO);
+
+        if (web_get_int_property(HTTP_INFO_RETURN_CODE) >= 400) break;
+    }
+
+
+    return 0;
+}